@@ -0,0 +1,46 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import guru.springframework.spring6resttemplate.client.BeerClientImpl;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the request URI of {@code findAllBeers(Map)} without and with the usual filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerListUriBenchmark {
+
+	Map<String, Object> noParameters = Map.of();
+	Map<String, Object> filters = new LinkedHashMap<>(Map.of(
+		"beerName", "Mango Bobs",
+		"beerStyle", BeerStyle.ALE,
+		"pageNumber", 2,
+		"pageSize", 50));
+
+	@Benchmark
+	public String withoutParameters() {
+		return BeerClientImpl.beerListUri(noParameters);
+	}
+
+	@Benchmark
+	public String withFilters() {
+		return BeerClientImpl.beerListUri(filters);
+	}
+}
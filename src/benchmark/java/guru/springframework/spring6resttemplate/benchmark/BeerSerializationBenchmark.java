@@ -0,0 +1,59 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body encoding of {@code createBeer} (no id) and {@code updateBeer} (with id),
+ * through the same message converter RestTemplate uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerSerializationBenchmark {
+
+	MappingJackson2HttpMessageConverter converter;
+	BeerDTO newBeer;
+	BeerDTO existingBeer;
+
+	@Setup
+	public void setUp() {
+		converter = new MappingJackson2HttpMessageConverter(BenchmarkClients.OBJECT_MAPPER);
+		existingBeer = BenchmarkClients.beer(1);
+		newBeer = existingBeer.toBuilder().id(null).version(null).createdDate(null).updateDate(null).build();
+	}
+
+	@Benchmark
+	public byte[] createPayload() throws IOException {
+		return write(newBeer);
+	}
+
+	@Benchmark
+	public byte[] updatePayload() throws IOException {
+		return write(existingBeer);
+	}
+
+	private byte[] write(BeerDTO beer) throws IOException {
+		MockHttpOutputMessage message = new MockHttpOutputMessage();
+		converter.write(beer, BeerDTO.class, MediaType.APPLICATION_JSON, message);
+		return message.getBodyAsBytes();
+	}
+}
@@ -0,0 +1,56 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.client.BeerCatalogReplica;
+import guru.springframework.spring6resttemplate.client.BeerClientImpl;
+import guru.springframework.spring6resttemplate.client.BeerDTOCache;
+import guru.springframework.spring6resttemplate.client.RequestCoalescer;
+import guru.springframework.spring6resttemplate.client.ResilientReadExecutor;
+import guru.springframework.spring6resttemplate.config.TokenRefreshingRestTemplate;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Wires a {@link BeerClientImpl} the way the application context does, without starting one.
+ */
+final class BenchmarkClients {
+
+	static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+	private BenchmarkClients() {
+	}
+
+	static BeerClientImpl beerClient(String rootUrl, ClientHttpRequestFactory requestFactory,
+									 ClientHttpRequestInterceptor... interceptors) {
+		RestTemplate restTemplate = new RestTemplateBuilder()
+			.rootUri(rootUrl)
+			.requestFactory(() -> requestFactory)
+			.additionalInterceptors(interceptors)
+			.build(TokenRefreshingRestTemplate.class);
+		return new BeerClientImpl(restTemplate, OBJECT_MAPPER, BeerDTOCache.disabled(),
+			new RequestCoalescer(true), BeerCatalogReplica.disabled(), ResilientReadExecutor.disabled());
+	}
+
+	static BeerDTO beer(int i) {
+		return BeerDTO.builder()
+			.id(UUID.randomUUID())
+			.version(1)
+			.beerName("Benchmark Beer " + i)
+			.beerStyle(BeerStyle.values()[i % BeerStyle.values().length])
+			.upc(String.valueOf(100000 + i))
+			.quantityOnHand(i)
+			.price(new BigDecimal("12.99"))
+			.createdDate(LocalDateTime.now())
+			.updateDate(LocalDateTime.now())
+			.build();
+	}
+}
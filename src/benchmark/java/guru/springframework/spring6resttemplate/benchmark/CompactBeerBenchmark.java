@@ -0,0 +1,54 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.CompactBeer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the compact cache form: {@code copy} is what a cache read cost when beers were stored as
+ * {@link BeerDTO}s, {@code decode} what it costs now, and {@code encode} the extra work on a cache write.
+ * Footprint is reported by {@link CompactBeerFootprint}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactBeerBenchmark {
+
+	BeerDTO beer;
+	CompactBeer compactBeer;
+
+	@Setup
+	public void setUp() {
+		beer = BenchmarkClients.beer(1);
+		compactBeer = CompactBeer.of(beer);
+	}
+
+	@Benchmark
+	public BeerDTO copy() {
+		return beer.toBuilder().build();
+	}
+
+	@Benchmark
+	public CompactBeer encode() {
+		return CompactBeer.of(beer);
+	}
+
+	@Benchmark
+	public BeerDTO decode() {
+		return compactBeer.toBeerDTO();
+	}
+}
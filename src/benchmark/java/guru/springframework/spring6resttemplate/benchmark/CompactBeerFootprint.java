@@ -0,0 +1,43 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.CompactBeer;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+/**
+ * Heap retained per cached beer as a {@link BeerDTO} and as a {@link CompactBeer}, measured with JOL.
+ * The beers are bound from JSON, as the client caches them, so no field values are shared.
+ * <p>
+ * Arguments: {@code [beers]}, default 100000.
+ */
+public class CompactBeerFootprint {
+
+	public static void main(String[] args) throws Exception {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		BeerDTO[] beers = new BeerDTO[count];
+		CompactBeer[] compactBeers = new CompactBeer[count];
+		for (int i = 0; i < count; i++) {
+			byte[] json = BenchmarkClients.OBJECT_MAPPER.writeValueAsBytes(BenchmarkClients.beer(i));
+			beers[i] = BenchmarkClients.OBJECT_MAPPER.readValue(json, BeerDTO.class);
+			compactBeers[i] = CompactBeer.of(beers[i]);
+		}
+
+		System.out.println(VM.current().details());
+		System.out.println(ClassLayout.parseClass(BeerDTO.class).toPrintable());
+		System.out.println(ClassLayout.parseClass(CompactBeer.class).toPrintable());
+
+		// the array elements are the roots, the arrays themselves are not counted
+		long dtoBytes = report("BeerDTO", GraphLayout.parseInstance((Object[]) beers), count);
+		long compactBytes = report("CompactBeer", GraphLayout.parseInstance((Object[]) compactBeers), count);
+		System.out.printf("%nCompactBeer takes %.1f%% of the heap of BeerDTO%n", 100.0 * compactBytes / dtoBytes);
+	}
+
+	private static long report(String name, GraphLayout layout, int count) {
+		System.out.println(layout.toFootprint());
+		System.out.printf("%s: %d bytes for %d beers, %.1f bytes per beer%n%n",
+			name, layout.totalSize(), count, (double) layout.totalSize() / count);
+		return layout.totalSize();
+	}
+}
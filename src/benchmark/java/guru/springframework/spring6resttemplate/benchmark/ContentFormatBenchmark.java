@@ -0,0 +1,71 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
+import guru.springframework.spring6resttemplate.page.RestResponsePage;
+import guru.springframework.spring6resttemplate.page.StreamingPageReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size and decode cost of a beer page as JSON, Smile and CBOR. Payload sizes are printed during setup;
+ * run with {@code -prof gc} to compare allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentFormatBenchmark {
+
+	@Param({"json", "smile", "cbor"})
+	String format;
+
+	@Param({"100", "1000"})
+	int pageSize;
+
+	ObjectMapper mapper;
+	RestResponsePage<BeerDTO> page;
+	StreamingPageReader<BeerDTO> streamingReader;
+	byte[] payload;
+
+	@Setup
+	public void setUp() throws IOException {
+		mapper = switch (format) {
+			case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+			case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+			default -> BenchmarkClients.OBJECT_MAPPER;
+		};
+		streamingReader = new StreamingPageReader<>(mapper, BeerDTO.class);
+		page = PageDeserializationBenchmark.page(pageSize);
+		payload = mapper.writeValueAsBytes(page);
+		System.out.printf("%n%s page of %d beers: %d bytes%n", format, pageSize, payload.length);
+	}
+
+	@Benchmark
+	public byte[] encodePage() throws IOException {
+		return mapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public PageMetadata streamedPage(Blackhole blackhole) throws IOException {
+		return streamingReader.read(new ByteArrayInputStream(payload), blackhole::consume);
+	}
+}
@@ -0,0 +1,89 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import guru.springframework.spring6resttemplate.client.BeerClientImpl;
+import guru.springframework.spring6resttemplate.config.RestTemplateConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the pooled HTTP/1.1 transport with the JDK {@link HttpClient} HTTP/2 transport against
+ * {@link StubBeerServer} (cleartext {@code h2c}). Every caller is a virtual thread issuing a mix of
+ * {@code findBeerById} and page requests; the report shows throughput and how many connections each
+ * transport opened.
+ * <p>
+ * Arguments: {@code [requests] [concurrency] [pool-size]}, defaults 50000, 256 and 256. A smaller pool
+ * shows callers queueing for HTTP/1.1 connections.
+ */
+public class Http2TransportBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int requests = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+		int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+		int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : concurrency;
+
+		RestTemplateConfig config = new RestTemplateConfig();
+		try (StubBeerServer server = StubBeerServer.start(1000);
+			 CloseableHttpClient pooled = config.pooledHttpClient(
+				 config.poolingConnectionManager(poolSize, poolSize,
+					 Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofSeconds(2)),
+				 Duration.ofSeconds(30), Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(60));
+			 ExecutorService http2Executor = config.http2Executor();
+			 HttpClient http2 = config.http2Client(http2Executor, Duration.ofSeconds(2))) {
+
+			List<UUID> ids = server.getBeerIds();
+			ClientHttpRequestFactory pooledFactory = new HttpComponentsClientHttpRequestFactory(pooled);
+			ClientHttpRequestFactory http2Factory = RestTemplateConfig.http2RequestFactory(http2, Duration.ofSeconds(10));
+
+			// the first h2c request upgrades the connection; warm both so neither pays for it or for the JIT
+			run("warm-up", server, pooledFactory, ids, requests / 10, concurrency);
+			run("warm-up", server, http2Factory, ids, requests / 10, concurrency);
+
+			run("http/1.1", server, pooledFactory, ids, requests, concurrency);
+			run("http/2", server, http2Factory, ids, requests, concurrency);
+		}
+	}
+
+	private static void run(String mode, StubBeerServer server, ClientHttpRequestFactory requestFactory,
+							List<UUID> ids, int requests, int concurrency) throws Exception {
+		BeerClientImpl beerClient = BenchmarkClients.beerClient(server.getBaseUrl(), requestFactory);
+
+		server.resetConnectionCount();
+		long start = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> workers = new ArrayList<>(concurrency);
+			for (int w = 0; w < concurrency; w++) {
+				int share = requests / concurrency;
+				workers.add(executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < share; i++) {
+						if (i % 10 == 0) {
+							beerClient.findAllBeers(Map.of(BeerClientImpl.PAGE_NUMBER_PARAM, random.nextInt(1, 40),
+								BeerClientImpl.PAGE_SIZE_PARAM, 25));
+						} else {
+							beerClient.findBeerById(ids.get(random.nextInt(ids.size())));
+						}
+					}
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%-10s requests=%d concurrency=%d throughput=%.0f req/s connections=%d%n",
+			mode, requests, concurrency, requests / seconds, server.getConnectionCount());
+	}
+}
@@ -0,0 +1,91 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import guru.springframework.spring6resttemplate.config.BeerClientMetricsInterceptor;
+import guru.springframework.spring6resttemplate.config.OAuthClientInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the interceptor chain with a token that is already held, i.e. the
+ * steady state of every call. The authorized client manager is a stub, so no token endpoint is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorBenchmark {
+
+	private static final byte[] NO_BODY = new byte[0];
+
+	OAuthClientInterceptor oAuthInterceptor;
+	BeerClientMetricsInterceptor metricsInterceptor;
+	MockClientHttpRequest request;
+	ClientHttpRequestExecution execution;
+	ClientHttpRequestExecution meteredExecution;
+
+	@Setup
+	public void setUp() {
+		ClientRegistration registration = ClientRegistration.withRegistrationId("springauth")
+			.authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+			.clientId("benchmark")
+			.tokenUri("http://localhost/oauth2/token")
+			.build();
+		OAuth2AuthorizedClient client = new OAuth2AuthorizedClient(registration, "benchmark",
+			new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "token",
+				Instant.now(), Instant.now().plusSeconds(3600)));
+
+		oAuthInterceptor = new OAuthClientInterceptor(authorizeRequest -> client,
+			new InMemoryClientRegistrationRepository(registration));
+		metricsInterceptor = new BeerClientMetricsInterceptor(new SimpleMeterRegistry());
+		request = new MockClientHttpRequest(HttpMethod.GET,
+			URI.create("http://localhost:8080/api/v1/beer/" + UUID.randomUUID()));
+		execution = (request, body) -> new MockClientHttpResponse(NO_BODY, HttpStatus.OK);
+		meteredExecution = (request, body) -> metricsInterceptor.intercept(request, body, execution);
+	}
+
+	@TearDown
+	public void tearDown() {
+		oAuthInterceptor.destroy();
+	}
+
+	@Benchmark
+	public ClientHttpResponse oAuth() throws IOException {
+		return oAuthInterceptor.intercept(request, NO_BODY, execution);
+	}
+
+	@Benchmark
+	public ClientHttpResponse oAuthAndMetrics() throws IOException {
+		try (ClientHttpResponse response = oAuthInterceptor.intercept(request, NO_BODY, meteredExecution)) {
+			return response;
+		}
+	}
+}
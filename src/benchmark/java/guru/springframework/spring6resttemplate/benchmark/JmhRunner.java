@@ -0,0 +1,37 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH entry point of the {@code benchmark} profile. Takes the usual JMH command line, but always
+ * adds the GC profiler so allocation per operation is part of every result, and writes the results
+ * to {@code target/jmh-result.json} unless {@code -rff} says otherwise.
+ */
+public class JmhRunner {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+			|| commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+			Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+		// -prof gc may already be on the command line, by alias or class name
+		if (commandLine.getProfilers().stream()
+			.noneMatch(p -> p.getKlass().equals("gc") || p.getKlass().equals(GCProfiler.class.getName()))) {
+			options.addProfiler(GCProfiler.class);
+		}
+		if (!commandLine.getResult().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON).result("target/jmh-result.json");
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,250 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import guru.springframework.spring6resttemplate.client.BeerClientImpl;
+import guru.springframework.spring6resttemplate.config.OAuthClientInterceptor;
+import guru.springframework.spring6resttemplate.config.RestTemplateConfig;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.security.oauth2.client.InMemoryOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.PAGE_NUMBER_PARAM;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.PAGE_SIZE_PARAM;
+
+/**
+ * Drives {@link BeerClientImpl} with concurrent workers against an in-process {@link StubBeerServer},
+ * authenticated through the real {@link OAuthClientInterceptor} against a {@link StubTokenServer}.
+ * <p>
+ * Arguments are {@code key=value} pairs, see {@link Settings} for keys and defaults. Prints throughput
+ * and p50/p95/p99/p99.9 per operation and writes one HdrHistogram percentile file ({@code .hgrm}) per
+ * operation plus a tagged histogram log to {@code output}. Latencies are recorded in microseconds.
+ */
+public class LoadHarness {
+
+	enum Operation {
+		FIND_BY_ID(70), FIND_ALL(15), CREATE(7), UPDATE(6), DELETE(2);
+
+		final int weight;
+
+		Operation(int weight) {
+			this.weight = weight;
+		}
+
+		static Operation pick(ThreadLocalRandom random) {
+			int roll = random.nextInt(100);
+			for (Operation operation : values()) {
+				roll -= operation.weight;
+				if (roll < 0) {
+					return operation;
+				}
+			}
+			return FIND_BY_ID;
+		}
+	}
+
+	/**
+	 * @param threads {@code virtual} for one virtual thread per worker, {@code platform} for a fixed pool
+	 */
+	record Settings(int workers, String threads, Duration warmup, Duration duration, int catalogSize, int pageSize,
+					StubFaults apiFaults, StubFaults tokenFaults, Duration tokenLifetime, Path output) {
+
+		static Settings parse(String[] args) {
+			Map<String, String> values = new HashMap<>();
+			for (String arg : args) {
+				int separator = arg.indexOf('=');
+				if (separator < 0) {
+					throw new IllegalArgumentException("Expected key=value but got " + arg);
+				}
+				values.put(arg.substring(0, separator), arg.substring(separator + 1));
+			}
+			return new Settings(
+				Integer.parseInt(values.getOrDefault("workers", "64")),
+				values.getOrDefault("threads", "virtual"),
+				duration(values, "warmup", "10s"),
+				duration(values, "duration", "30s"),
+				Integer.parseInt(values.getOrDefault("catalog", "1000")),
+				Integer.parseInt(values.getOrDefault("page-size", "25")),
+				new StubFaults(duration(values, "api-latency", "0ms"), duration(values, "api-jitter", "0ms"),
+					Double.parseDouble(values.getOrDefault("api-error-rate", "0"))),
+				new StubFaults(duration(values, "token-latency", "0ms"), duration(values, "token-jitter", "0ms"),
+					Double.parseDouble(values.getOrDefault("token-error-rate", "0"))),
+				duration(values, "token-lifetime", "300s"),
+				Path.of(values.getOrDefault("output", "target/load-test")));
+		}
+
+		private static Duration duration(Map<String, String> values, String key, String defaultValue) {
+			return DurationStyle.detectAndParse(values.getOrDefault(key, defaultValue));
+		}
+	}
+
+	private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+	private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+	private volatile boolean running = true;
+
+	private LoadHarness() {
+		for (Operation operation : Operation.values()) {
+			recorders.put(operation, new Recorder(3));
+			errors.put(operation, new LongAdder());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		new LoadHarness().run(Settings.parse(args));
+	}
+
+	private void run(Settings settings) throws Exception {
+		RestTemplateConfig config = new RestTemplateConfig();
+		try (StubBeerServer beerServer = StubBeerServer.start(settings.catalogSize());
+			 StubTokenServer tokenServer = StubTokenServer.start(settings.tokenLifetime());
+			 CloseableHttpClient httpClient = config.pooledHttpClient(
+				 config.poolingConnectionManager(settings.workers() * 2, settings.workers(),
+					 Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofSeconds(2)),
+				 Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(60))) {
+
+			beerServer.setFaults(settings.apiFaults());
+			tokenServer.setFaults(settings.tokenFaults());
+
+			ClientRegistration registration = ClientRegistration.withRegistrationId("springauth")
+				.authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+				.clientId("load-test")
+				.clientSecret("secret")
+				.tokenUri(tokenServer.getTokenUri())
+				.build();
+			InMemoryClientRegistrationRepository registrations = new InMemoryClientRegistrationRepository(registration);
+			OAuth2AuthorizedClientManager manager = config.auth2AuthorizedClientManager(registrations,
+				new InMemoryOAuth2AuthorizedClientService(registrations), OAuthClientInterceptor.DEFAULT_REFRESH_BEFORE);
+			OAuthClientInterceptor interceptor = new OAuthClientInterceptor(manager, registrations);
+
+			BeerClientImpl beerClient = BenchmarkClients.beerClient(beerServer.getBaseUrl(),
+				new HttpComponentsClientHttpRequestFactory(httpClient), interceptor);
+			List<UUID> ids = beerServer.getBeerIds();
+
+			ExecutorService executor = settings.threads().equals("platform")
+				? Executors.newFixedThreadPool(settings.workers())
+				: Executors.newVirtualThreadPerTaskExecutor();
+			try {
+				for (int w = 0; w < settings.workers(); w++) {
+					executor.execute(() -> work(beerClient, ids, settings));
+				}
+
+				TimeUnit.NANOSECONDS.sleep(settings.warmup().toNanos());
+				recorders.values().forEach(Recorder::getIntervalHistogram);
+				errors.values().forEach(LongAdder::reset);
+
+				long start = System.nanoTime();
+				TimeUnit.NANOSECONDS.sleep(settings.duration().toNanos());
+				Map<Operation, Histogram> results = new EnumMap<>(Operation.class);
+				recorders.forEach((operation, recorder) -> results.put(operation, recorder.getIntervalHistogram()));
+				double seconds = (System.nanoTime() - start) / 1e9;
+
+				report(settings, results, seconds, tokenServer.getTokenRequestCount());
+			} finally {
+				running = false;
+				executor.shutdown();
+				executor.awaitTermination(30, TimeUnit.SECONDS);
+				interceptor.destroy();
+			}
+		}
+	}
+
+	private void work(BeerClientImpl beerClient, List<UUID> ids, Settings settings) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Deque<UUID> created = new ArrayDeque<>();
+		while (running) {
+			Operation operation = Operation.pick(random);
+			if (operation == Operation.DELETE && created.isEmpty()) {
+				operation = Operation.CREATE;
+			}
+
+			long start = System.nanoTime();
+			try {
+				switch (operation) {
+					case FIND_BY_ID -> beerClient.findBeerById(ids.get(random.nextInt(ids.size())));
+					case FIND_ALL -> beerClient.findAllBeers(Map.of(
+						PAGE_NUMBER_PARAM, 1 + random.nextInt(Math.max(1, settings.catalogSize() / settings.pageSize())),
+						PAGE_SIZE_PARAM, settings.pageSize()));
+					case CREATE -> {
+						BeerDTO beer = beerClient.createBeer(BenchmarkClients.beer(random.nextInt(1000)).toBuilder()
+							.id(null)
+							.build());
+						created.push(beer.getId());
+					}
+					case UPDATE -> beerClient.updateBeer(BenchmarkClients.beer(random.nextInt(1000)).toBuilder()
+						.id(ids.get(random.nextInt(ids.size())))
+						.build());
+					case DELETE -> beerClient.deleteBeer(created.pop());
+				}
+			} catch (RuntimeException e) {
+				errors.get(operation).increment();
+			}
+			recorders.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+		}
+	}
+
+	private void report(Settings settings, Map<Operation, Histogram> results, double seconds, long tokenRequests)
+			throws IOException {
+		Files.createDirectories(settings.output());
+		System.out.printf("workers=%d threads=%s duration=%.1fs api=%s token=%s token requests=%d%n",
+			settings.workers(), settings.threads(), seconds, settings.apiFaults(), settings.tokenFaults(), tokenRequests);
+		System.out.printf("%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+			"operation", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+
+		long total = 0;
+		try (PrintStream log = new PrintStream(Files.newOutputStream(settings.output().resolve("load-test.hlog")))) {
+			HistogramLogWriter logWriter = new HistogramLogWriter(log);
+			logWriter.outputLogFormatVersion();
+			logWriter.outputLegend();
+
+			for (Map.Entry<Operation, Histogram> result : results.entrySet()) {
+				Histogram histogram = result.getValue();
+				String name = result.getKey().name().toLowerCase();
+				total += histogram.getTotalCount();
+
+				System.out.printf("%-10s %10d %8d %10.0f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+					name, histogram.getTotalCount(), errors.get(result.getKey()).sum(),
+					histogram.getTotalCount() / seconds,
+					millis(histogram, 50), millis(histogram, 95), millis(histogram, 99), millis(histogram, 99.9),
+					histogram.getMaxValue() / 1000.0);
+
+				try (PrintStream hgrm = new PrintStream(Files.newOutputStream(
+					settings.output().resolve(name + ".hgrm")))) {
+					histogram.outputPercentileDistribution(hgrm, 1000.0);
+				}
+				histogram.setTag(name);
+				logWriter.outputIntervalHistogram(histogram);
+			}
+		}
+		System.out.printf("%-10s %10d %8s %10.0f%n", "total", total, "", total / seconds);
+		System.out.println("Histograms written to " + settings.output().toAbsolutePath());
+	}
+
+	private static double millis(Histogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+}
@@ -0,0 +1,79 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
+import guru.springframework.spring6resttemplate.page.RestResponsePage;
+import guru.springframework.spring6resttemplate.page.StreamingPageReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bound ({@code ParameterizedTypeReference<RestResponsePage<BeerDTO>>}, as RestTemplate does it)
+ * versus streamed ({@link StreamingPageReader}) page decoding. Run with {@code -prof gc} to
+ * compare allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageDeserializationBenchmark {
+
+	private static final Type PAGE_TYPE = new ParameterizedTypeReference<RestResponsePage<BeerDTO>>() {}.getType();
+
+	@Param({"10", "100", "1000"})
+	int pageSize;
+
+	ObjectMapper mapper;
+	MappingJackson2HttpMessageConverter converter;
+	StreamingPageReader<BeerDTO> streamingReader;
+	byte[] payload;
+
+	@Setup
+	public void setUp() throws IOException {
+		mapper = BenchmarkClients.OBJECT_MAPPER;
+		converter = new MappingJackson2HttpMessageConverter(mapper);
+		streamingReader = new StreamingPageReader<>(mapper, BeerDTO.class);
+		payload = mapper.writeValueAsBytes(page(pageSize));
+	}
+
+	@Benchmark
+	public Object boundPage() throws IOException {
+		return converter.read(PAGE_TYPE, null, new MockHttpInputMessage(payload));
+	}
+
+	@Benchmark
+	public PageMetadata streamedPage(Blackhole blackhole) throws IOException {
+		return streamingReader.read(new ByteArrayInputStream(payload), blackhole::consume);
+	}
+
+	static RestResponsePage<BeerDTO> page(int size) {
+		List<BeerDTO> content = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			content.add(BenchmarkClients.beer(i));
+		}
+		return new RestResponsePage<>(content, 0, size, size * 10L);
+	}
+}
@@ -0,0 +1,81 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import guru.springframework.spring6resttemplate.client.BeerClientImpl;
+import guru.springframework.spring6resttemplate.config.RestTemplateConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares {@code findBeerById} throughput and handshake count against {@link StubBeerServer}
+ * with and without connection reuse.
+ * <p>
+ * Arguments: {@code [requests] [concurrency]}, defaults 20000 and 32.
+ */
+public class PooledTransportBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+
+		RestTemplateConfig config = new RestTemplateConfig();
+		try (StubBeerServer server = StubBeerServer.start(1000);
+			 CloseableHttpClient unpooled = HttpClients.custom()
+				 .setConnectionReuseStrategy((request, response, context) -> false)
+				 .build();
+			 CloseableHttpClient pooled = config.pooledHttpClient(
+				 config.poolingConnectionManager(concurrency * 2, concurrency,
+					 Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofSeconds(2)),
+				 Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(60))) {
+
+			List<UUID> ids = server.getBeerIds();
+
+			// one short warm-up round each so class loading and JIT do not skew the first mode
+			run("warm-up", server, unpooled, ids, requests / 10, concurrency);
+			run("warm-up", server, pooled, ids, requests / 10, concurrency);
+
+			run("no reuse", server, unpooled, ids, requests, concurrency);
+			run("pooled", server, pooled, ids, requests, concurrency);
+		}
+	}
+
+	private static void run(String mode, StubBeerServer server, CloseableHttpClient httpClient,
+							List<UUID> ids, int requests, int concurrency) throws Exception {
+		BeerClientImpl beerClient = BenchmarkClients.beerClient(
+			server.getBaseUrl(), new HttpComponentsClientHttpRequestFactory(httpClient));
+
+		server.resetConnectionCount();
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		try {
+			List<Future<?>> workers = new ArrayList<>(concurrency);
+			for (int w = 0; w < concurrency; w++) {
+				int share = requests / concurrency;
+				workers.add(executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < share; i++) {
+						beerClient.findBeerById(ids.get(random.nextInt(ids.size())));
+					}
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%-10s requests=%d concurrency=%d throughput=%.0f req/s handshakes=%d%n",
+			mode, requests, concurrency, requests / seconds, server.getConnectionCount());
+	}
+}
@@ -0,0 +1,110 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import guru.springframework.spring6resttemplate.client.BeerClientImpl;
+import guru.springframework.spring6resttemplate.client.BeerRequestUris;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import guru.springframework.spring6resttemplate.page.RestResponsePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static guru.springframework.spring6resttemplate.benchmark.BenchmarkClients.OBJECT_MAPPER;
+
+/**
+ * Allocation of the request path of {@code findBeerById} and {@code findAllBeers(Map)}. The {@code template*}
+ * methods build the URIs through the URI template engine as {@code RestTemplate} does for a template string,
+ * the {@code precompiled*} ones through {@link BeerRequestUris}. The {@code client*} methods run the whole
+ * client against a transport that answers from memory, so the difference shows up in {@code gc.alloc.rate.norm}
+ * next to the cost of binding the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestPathBenchmark {
+
+	private static final String ROOT_URI = "http://localhost:8080";
+
+	UUID beerId = UUID.randomUUID();
+	Map<String, Object> filters = new LinkedHashMap<>(Map.of(
+		"beerName", "Mango Bobs",
+		"beerStyle", BeerStyle.ALE,
+		"pageNumber", 2,
+		"pageSize", 50));
+
+	DefaultUriBuilderFactory uriTemplateHandler = new DefaultUriBuilderFactory(ROOT_URI);
+	BeerRequestUris requestUris = new BeerRequestUris(uriTemplateHandler);
+	BeerClientImpl beerClient;
+
+	@Setup
+	public void setUp() throws Exception {
+		byte[] beer = OBJECT_MAPPER.writeValueAsBytes(BenchmarkClients.beer(1));
+		byte[] page = OBJECT_MAPPER.writeValueAsBytes(
+			new RestResponsePage<>(List.of(BenchmarkClients.beer(1), BenchmarkClients.beer(2)), 1, 50, 52));
+
+		beerClient = BenchmarkClients.beerClient(ROOT_URI, (uri, method) -> {
+			MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+			MockClientHttpResponse response = new MockClientHttpResponse(uri.getQuery() == null ? beer : page, HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			request.setResponse(response);
+			return request;
+		});
+	}
+
+	@Benchmark
+	public URI templateBeerUri() {
+		return uriTemplateHandler.expand(BeerClientImpl.GET_BEER_PATH_VAR, beerId);
+	}
+
+	@Benchmark
+	public URI precompiledBeerUri() {
+		return requestUris.beer(beerId);
+	}
+
+	@Benchmark
+	public URI templateBeerListUri() {
+		// what findAllBeers(Map) did before: build the query, then let the RestTemplate expand and encode it
+		UriComponentsBuilder builder = UriComponentsBuilder.fromPath(BeerClientImpl.GET_BEER_PATH);
+		filters.forEach((key, value) -> builder.queryParam(key, value.toString()));
+		return uriTemplateHandler.expand(builder.build().toUriString());
+	}
+
+	@Benchmark
+	public URI precompiledBeerListUri() {
+		return requestUris.beerList(filters);
+	}
+
+	@Benchmark
+	public BeerDTO clientFindBeerById() {
+		return beerClient.findBeerById(beerId);
+	}
+
+	@Benchmark
+	public Page<BeerDTO> clientFindAllBeers() {
+		return beerClient.findAllBeers(filters);
+	}
+}
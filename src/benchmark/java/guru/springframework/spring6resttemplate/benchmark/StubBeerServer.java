@@ -0,0 +1,211 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.LifecycleException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.PREFER_HEADER;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.RETURN_REPRESENTATION;
+
+/**
+ * In-process stand-in for the beer API, backed by an embedded Tomcat on a random port.
+ * Counts distinct client sockets so benchmarks can report how many TCP handshakes a
+ * transport needed. Writes honor {@code Prefer: return=representation}; {@code PATCH} takes a JSON merge patch
+ * and checks {@code If-Match} against the version. Only JSON is spoken:
+ * responses are always JSON and other request bodies are answered with {@code 415}. Responses are gzip
+ * encoded when the client accepts it, and gzip encoded request bodies are decoded.
+ */
+public class StubBeerServer extends StubServer {
+
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+	private final Map<UUID, BeerDTO> beers = new ConcurrentSkipListMap<>();
+	private final Set<String> clientSockets = ConcurrentHashMap.newKeySet();
+
+	public static StubBeerServer start(int catalogSize) throws IOException, LifecycleException {
+		StubBeerServer server = new StubBeerServer();
+		for (int i = 0; i < catalogSize; i++) {
+			BeerDTO beer = BeerDTO.builder()
+				.id(UUID.randomUUID())
+				.version(1)
+				.beerName("Beer " + i)
+				.beerStyle(BeerStyle.values()[i % BeerStyle.values().length])
+				.upc(String.valueOf(100000 + i))
+				.quantityOnHand(i % 500)
+				.price(new BigDecimal("9.99"))
+				.createdDate(LocalDateTime.now())
+				.updateDate(LocalDateTime.now())
+				.build();
+			server.beers.put(beer.getId(), beer);
+		}
+		server.startTomcat("stub-beer-server", GET_BEER_PATH + "/*", server.new BeerServlet());
+		return server;
+	}
+
+	public List<UUID> getBeerIds() {
+		return new ArrayList<>(beers.keySet());
+	}
+
+	public int getConnectionCount() {
+		return clientSockets.size();
+	}
+
+	public void resetConnectionCount() {
+		clientSockets.clear();
+	}
+
+	private class BeerServlet extends HttpServlet {
+
+		@Override
+		protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			clientSockets.add(req.getRemoteAddr() + ":" + req.getRemotePort());
+			if (injectFaults(resp)) {
+				return;
+			}
+
+			String id = req.getPathInfo() == null || req.getPathInfo().length() <= 1
+				? null : req.getPathInfo().substring(1);
+
+			switch (req.getMethod()) {
+				case "GET" -> {
+					if (id == null) {
+						writeJson(req, resp, HttpServletResponse.SC_OK, page(req));
+					} else {
+						BeerDTO beer = beers.get(UUID.fromString(id));
+						if (beer == null) {
+							resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+						} else {
+							writeJson(req, resp, HttpServletResponse.SC_OK, beer);
+						}
+					}
+				}
+				case "POST" -> {
+					if (!isJson(req, resp)) {
+						return;
+					}
+					BeerDTO beer = mapper.readValue(requestBody(req), BeerDTO.class);
+					beer.setId(UUID.randomUUID());
+					beer.setVersion(1);
+					beers.put(beer.getId(), beer);
+					resp.setHeader("Location", GET_BEER_PATH + "/" + beer.getId());
+					writeWritten(req, resp, HttpServletResponse.SC_CREATED, beer);
+				}
+				case "PUT" -> {
+					if (!isJson(req, resp)) {
+						return;
+					}
+					BeerDTO beer = mapper.readValue(requestBody(req), BeerDTO.class);
+					beer.setId(UUID.fromString(id));
+					beers.put(beer.getId(), beer);
+					writeWritten(req, resp, HttpServletResponse.SC_OK, beer);
+				}
+				case "PATCH" -> {
+					BeerDTO beer = beers.get(UUID.fromString(id));
+					if (beer == null) {
+						resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+						return;
+					}
+					String ifMatch = req.getHeader("If-Match");
+					if (ifMatch != null && !ifMatch.equals("\"" + beer.getVersion() + "\"")) {
+						resp.setStatus(HttpServletResponse.SC_PRECONDITION_FAILED);
+						return;
+					}
+					BeerDTO patched = mapper.readerForUpdating(beer.toBuilder().build()).readValue(requestBody(req));
+					patched.setVersion(beer.getVersion() + 1);
+					beers.put(patched.getId(), patched);
+					writeWritten(req, resp, HttpServletResponse.SC_OK, patched);
+				}
+				case "DELETE" -> resp.setStatus(beers.remove(UUID.fromString(id)) == null
+					? HttpServletResponse.SC_NOT_FOUND : HttpServletResponse.SC_NO_CONTENT);
+				default -> resp.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+			}
+		}
+
+		private Map<String, Object> page(HttpServletRequest req) {
+			int pageNumber = intParameter(req, "pageNumber", 1);
+			int pageSize = intParameter(req, "pageSize", 25);
+			String beerName = req.getParameter("beerName");
+			String beerStyle = req.getParameter("beerStyle");
+
+			List<BeerDTO> matching = beers.values().stream()
+				.filter(beer -> beerName == null
+					|| beer.getBeerName().toLowerCase().contains(beerName.toLowerCase()))
+				.filter(beer -> beerStyle == null || beer.getBeerStyle().name().equals(beerStyle))
+				.toList();
+
+			int from = Math.min((pageNumber - 1) * pageSize, matching.size());
+			int to = Math.min(from + pageSize, matching.size());
+
+			Map<String, Object> page = new LinkedHashMap<>();
+			page.put("content", matching.subList(from, to));
+			page.put("number", pageNumber - 1);
+			page.put("size", pageSize);
+			page.put("totalElements", matching.size());
+			return page;
+		}
+
+		private boolean isJson(HttpServletRequest req, HttpServletResponse resp) {
+			if (req.getContentType() != null && req.getContentType().startsWith("application/json")) {
+				return true;
+			}
+			resp.setStatus(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+			return false;
+		}
+
+		private int intParameter(HttpServletRequest req, String name, int defaultValue) {
+			String value = req.getParameter(name);
+			return value == null ? defaultValue : Integer.parseInt(value);
+		}
+
+		private void writeWritten(HttpServletRequest req, HttpServletResponse resp, int status, BeerDTO beer)
+				throws IOException {
+			if (RETURN_REPRESENTATION.equals(req.getHeader(PREFER_HEADER))) {
+				writeJson(req, resp, status, beer);
+			} else {
+				resp.setStatus(status == HttpServletResponse.SC_CREATED ? status : HttpServletResponse.SC_NO_CONTENT);
+			}
+		}
+
+		private InputStream requestBody(HttpServletRequest req) throws IOException {
+			return "gzip".equals(req.getHeader("Content-Encoding"))
+				? new GZIPInputStream(req.getInputStream())
+				: req.getInputStream();
+		}
+
+		private void writeJson(HttpServletRequest req, HttpServletResponse resp, int status, Object body)
+				throws IOException {
+			resp.setStatus(status);
+			resp.setContentType("application/json");
+			String acceptEncoding = req.getHeader("Accept-Encoding");
+			if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+				mapper.writeValue(resp.getOutputStream(), body);
+				return;
+			}
+			resp.setHeader("Content-Encoding", "gzip");
+			try (OutputStream out = new GZIPOutputStream(resp.getOutputStream())) {
+				mapper.writeValue(out, body);
+			}
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import java.time.Duration;
+
+/**
+ * Latency and failures a stub server adds to every request: {@code latency} plus up to
+ * {@code jitter} of uniformly distributed extra delay, then a {@code 503} with probability {@code errorRate}.
+ */
+public record StubFaults(Duration latency, Duration jitter, double errorRate) {
+
+	public static final StubFaults NONE = new StubFaults(Duration.ZERO, Duration.ZERO, 0);
+}
@@ -0,0 +1,75 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Embedded Tomcat on a random port with {@link StubFaults} injection, shared by the stub servers.
+ * Requests run on virtual threads so injected latency does not exhaust a worker pool. Cleartext HTTP/2
+ * ({@code h2c}) is accepted next to HTTP/1.1.
+ */
+abstract class StubServer implements AutoCloseable {
+
+	private final Tomcat tomcat = new Tomcat();
+	private volatile StubFaults faults = StubFaults.NONE;
+
+	protected void startTomcat(String name, String mapping, HttpServlet servlet) throws IOException, LifecycleException {
+		tomcat.setBaseDir(Files.createTempDirectory(name).toString());
+		tomcat.setPort(0);
+		Context context = tomcat.addContext("", null);
+		Tomcat.addServlet(context, name, servlet);
+		context.addServletMappingDecoded(mapping, name);
+		tomcat.getConnector().getProtocolHandler().setExecutor(new VirtualThreadExecutor(name + "-"));
+		tomcat.getConnector().addUpgradeProtocol(new Http2Protocol());
+		tomcat.start();
+	}
+
+	public String getBaseUrl() {
+		return "http://localhost:" + tomcat.getConnector().getLocalPort();
+	}
+
+	public void setFaults(StubFaults faults) {
+		this.faults = faults;
+	}
+
+	/**
+	 * Delays the request by the configured latency and decides whether it fails.
+	 *
+	 * @return {@code true} if a {@code 503} was written and the request must not be served
+	 */
+	protected boolean injectFaults(HttpServletResponse resp) {
+		StubFaults current = faults;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long delayNanos = current.latency().toNanos();
+		if (!current.jitter().isZero()) {
+			delayNanos += random.nextLong(current.jitter().toNanos());
+		}
+		if (delayNanos > 0) {
+			try {
+				Thread.sleep(delayNanos / 1_000_000, (int) (delayNanos % 1_000_000));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (current.errorRate() > 0 && random.nextDouble() < current.errorRate()) {
+			resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void close() throws LifecycleException {
+		tomcat.stop();
+		tomcat.destroy();
+	}
+}
@@ -0,0 +1,57 @@
+package guru.springframework.spring6resttemplate.benchmark;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.LifecycleException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process OAuth2 token endpoint for the client credentials grant. Every request gets a new
+ * bearer token that expires after {@code tokenLifetime}; client authentication is not checked.
+ */
+public class StubTokenServer extends StubServer {
+
+	public static final String TOKEN_PATH = "/oauth2/token";
+
+	private final Duration tokenLifetime;
+	private final LongAdder tokenRequests = new LongAdder();
+
+	private StubTokenServer(Duration tokenLifetime) {
+		this.tokenLifetime = tokenLifetime;
+	}
+
+	public static StubTokenServer start(Duration tokenLifetime) throws IOException, LifecycleException {
+		StubTokenServer server = new StubTokenServer(tokenLifetime);
+		server.startTomcat("stub-token-server", TOKEN_PATH, server.new TokenServlet());
+		return server;
+	}
+
+	public String getTokenUri() {
+		return getBaseUrl() + TOKEN_PATH;
+	}
+
+	public long getTokenRequestCount() {
+		return tokenRequests.sum();
+	}
+
+	private class TokenServlet extends HttpServlet {
+
+		@Override
+		protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			tokenRequests.increment();
+			if (injectFaults(resp)) {
+				return;
+			}
+			resp.setStatus(HttpServletResponse.SC_OK);
+			resp.setContentType("application/json");
+			resp.setHeader("Cache-Control", "no-store");
+			resp.getWriter().write("{\"access_token\":\"" + UUID.randomUUID()
+				+ "\",\"token_type\":\"Bearer\",\"expires_in\":" + tokenLifetime.toSeconds() + "}");
+		}
+	}
+}
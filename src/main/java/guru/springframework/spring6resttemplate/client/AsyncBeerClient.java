@@ -0,0 +1,23 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.springframework.data.domain.Page;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+public interface AsyncBeerClient {
+	CompletableFuture<Page<BeerDTO>> findAllBeers();
+	CompletableFuture<Page<BeerDTO>> findAllBeers(Map<String, Object> parameters);
+	CompletableFuture<Page<BeerDTO>> findAllBeersAcrossPages(Map<String, Object> parameters, int pageSize, int parallelism);
+	CompletableFuture<BeerDTO> findBeerById(UUID beerId);
+	CompletableFuture<BeerBatchResult> findBeersByIds(Collection<UUID> beerIds);
+	CompletableFuture<BeerDTO> createBeer(BeerDTO newDto);
+	CompletableFuture<BeerDTO> updateBeer(BeerDTO dto);
+	CompletableFuture<BeerDTO> patchBeer(UUID beerId, BeerDTO original, BeerDTO modified);
+	CompletableFuture<BeerBatchResult> patchBeers(Collection<BeerDTO> originals, Consumer<? super BeerDTO> change);
+	CompletableFuture<Void> deleteBeer(UUID id);
+}
@@ -0,0 +1,152 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link BeerClient} calls on virtual threads, so callers can fan out without parking
+ * platform threads. At most {@code rest.template.async.max-concurrency} calls run at once;
+ * the rest wait on their own virtual thread, never on the caller's.
+ */
+@Service
+public class AsyncBeerClientImpl implements AsyncBeerClient, DisposableBean {
+
+	private final BeerClient beerClient;
+	private final Semaphore permits;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	public AsyncBeerClientImpl(BeerClient beerClient,
+							   @Value("${rest.template.async.max-concurrency:64}") int maxConcurrency) {
+		this.beerClient = beerClient;
+		this.permits = new Semaphore(maxConcurrency);
+	}
+
+	@Override
+	public CompletableFuture<Page<BeerDTO>> findAllBeers() {
+		return submit(beerClient::findAllBeers);
+	}
+
+	@Override
+	public CompletableFuture<Page<BeerDTO>> findAllBeers(Map<String, Object> parameters) {
+		return submit(() -> beerClient.findAllBeers(parameters));
+	}
+
+	@Override
+	public CompletableFuture<Page<BeerDTO>> findAllBeersAcrossPages(Map<String, Object> parameters, int pageSize,
+																   int parallelism) {
+		return submit(() -> beerClient.findAllBeersAcrossPages(parameters, pageSize, parallelism));
+	}
+
+	@Override
+	public CompletableFuture<BeerDTO> findBeerById(UUID beerId) {
+		return submit(() -> beerClient.findBeerById(beerId));
+	}
+
+	@Override
+	public CompletableFuture<BeerBatchResult> findBeersByIds(Collection<UUID> beerIds) {
+		Map<UUID, CompletableFuture<BeerDTO>> lookups = new LinkedHashMap<>();
+		for (UUID beerId : new LinkedHashSet<>(beerIds)) {
+			lookups.put(beerId, findBeerById(beerId));
+		}
+		return collect(lookups);
+	}
+
+	@Override
+	public CompletableFuture<BeerDTO> createBeer(BeerDTO newDto) {
+		return submit(() -> beerClient.createBeer(newDto));
+	}
+
+	@Override
+	public CompletableFuture<BeerDTO> updateBeer(BeerDTO dto) {
+		return submit(() -> beerClient.updateBeer(dto));
+	}
+
+	@Override
+	public CompletableFuture<BeerDTO> patchBeer(UUID beerId, BeerDTO original, BeerDTO modified) {
+		return submit(() -> beerClient.patchBeer(beerId, original, modified));
+	}
+
+	/**
+	 * Applies {@code change} to a copy of each beer and patches what it changed, e.g. many stock adjustments
+	 * at once. The patches share the {@code max-concurrency} permits with every other call. Each beer may only
+	 * appear once, since the result is keyed by id; nothing is sent otherwise.
+	 *
+	 * @throws IllegalArgumentException if two of {@code originals} have the same id
+	 */
+	@Override
+	public CompletableFuture<BeerBatchResult> patchBeers(Collection<BeerDTO> originals,
+														 Consumer<? super BeerDTO> change) {
+		Set<UUID> ids = new HashSet<>();
+		for (BeerDTO original : originals) {
+			if (!ids.add(original.getId())) {
+				throw new IllegalArgumentException("Beer " + original.getId() + " is patched more than once");
+			}
+		}
+
+		Map<UUID, CompletableFuture<BeerDTO>> patches = new LinkedHashMap<>();
+		for (BeerDTO original : originals) {
+			BeerDTO modified = BeerDTOCache.copy(original);
+			change.accept(modified);
+			patches.put(original.getId(), patchBeer(original.getId(), original, modified));
+		}
+		return collect(patches);
+	}
+
+	@Override
+	public CompletableFuture<Void> deleteBeer(UUID id) {
+		return submit(() -> {
+			beerClient.deleteBeer(id);
+			return null;
+		});
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private static CompletableFuture<BeerBatchResult> collect(Map<UUID, CompletableFuture<BeerDTO>> calls) {
+		return CompletableFuture.allOf(calls.values().toArray(CompletableFuture[]::new))
+			.handle((ignored, failure) -> {
+				Map<UUID, BeerDTO> succeeded = new LinkedHashMap<>();
+				Map<UUID, Throwable> failed = new LinkedHashMap<>();
+				calls.forEach((beerId, call) -> {
+					switch (call.state()) {
+						case SUCCESS -> succeeded.put(beerId, call.resultNow());
+						case FAILED -> failed.put(beerId, call.exceptionNow());
+						default -> failed.put(beerId, new CancellationException("Call for " + beerId + " was cancelled"));
+					}
+				});
+				return new BeerBatchResult(succeeded, failed);
+			});
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> call) {
+		return CompletableFuture.supplyAsync(() -> {
+			permits.acquireUninterruptibly();
+			try {
+				return call.get();
+			} finally {
+				permits.release();
+			}
+		}, executor);
+	}
+}
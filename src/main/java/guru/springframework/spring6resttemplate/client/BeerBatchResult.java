@@ -0,0 +1,16 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk operation where each beer succeeds or fails on its own.
+ */
+public record BeerBatchResult(Map<UUID, BeerDTO> succeeded, Map<UUID, Throwable> failed) {
+
+	public boolean hasFailures() {
+		return !failed.isEmpty();
+	}
+}
@@ -0,0 +1,502 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import guru.springframework.spring6resttemplate.model.CompactBeer;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
+import guru.springframework.spring6resttemplate.page.RestResponsePage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory copy of the catalog that answers {@link BeerClient#findAllBeers(Map)} without a request.
+ * <p>
+ * The first query starts a full paged load in the background. After that the replica syncs every
+ * {@code syncInterval}, asking for beers updated since the newest {@code updateDate} it holds and keeping
+ * an incoming beer only if its {@code version} (or {@code updateDate}) is newer than the local one.
+ * Servers that ignore {@value #UPDATED_SINCE_PARAM} send the whole catalog, which costs bandwidth but
+ * changes nothing that is up to date. Every {@code fullSyncInterval} a sync also drops beers that were
+ * deleted on the server.
+ * <p>
+ * Queries are answered locally only while the last completed sync started less than {@code maxStaleness}
+ * ago. Otherwise, and for parameters the replica does not know, {@link #findAllBeers(Map)} returns
+ * {@code null} and the caller asks the server. Results follow the beer API: {@code beerName} matches
+ * anywhere in the name ignoring case, {@code beerStyle} matches exactly, {@code showInventory=false}
+ * hides quantities and pages are sorted by name.
+ * <p>
+ * Names are indexed by trigram, so a name query only checks beers that share the rarest trigram of the
+ * search term. Each style has its own name-ordered set, and {@code upc} has an exact index. Beers are
+ * stored as {@link CompactBeer}s and only the returned page is converted back.
+ * A disabled replica holds nothing and answers nothing.
+ */
+public class BeerCatalogReplica implements AutoCloseable {
+
+	public static final String UPDATED_SINCE_PARAM = "updatedSince";
+	public static final String BEER_NAME_PARAM = "beerName";
+	public static final String BEER_STYLE_PARAM = "beerStyle";
+	public static final String SHOW_INVENTORY_PARAM = "showInventory";
+
+	// paging defaults of the beer API
+	static final int DEFAULT_PAGE_SIZE = 25;
+	static final int MAX_PAGE_SIZE = 1000;
+
+	private static final Set<String> QUERY_PARAMS = Set.of(BEER_NAME_PARAM, BEER_STYLE_PARAM, SHOW_INVENTORY_PARAM,
+		BeerClientImpl.PAGE_NUMBER_PARAM, BeerClientImpl.PAGE_SIZE_PARAM);
+	private static final Comparator<Entry> BY_NAME =
+		Comparator.comparing(Entry::name).thenComparing(Entry::beer, CompactBeer::compareId);
+
+	private static final Logger log = LoggerFactory.getLogger(BeerCatalogReplica.class);
+
+	private final boolean enabled;
+	private final Supplier<BeerClient> beerClient;
+	private final int syncPageSize;
+	private final Duration syncInterval;
+	private final Duration fullSyncInterval;
+	private final Duration maxStaleness;
+	private final Clock clock;
+	private final ScheduledExecutorService scheduler;
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<UUID, Entry> byId = new HashMap<>();
+	private final NavigableSet<Entry> byName = new TreeSet<>(BY_NAME);
+	private final Map<BeerStyle, NavigableSet<Entry>> byStyle = new EnumMap<>(BeerStyle.class);
+	private final Map<Long, Set<UUID>> byTrigram = new HashMap<>();
+	private final Map<String, Set<UUID>> byUpc = new HashMap<>();
+	private LocalDateTime highWater;
+
+	private volatile Instant lastSync;
+	private volatile Instant lastFullSync;
+
+	/**
+	 * A stored beer in its compact form, with the id instance that keys {@code byId} and the lower case
+	 * name, so sorting and matching neither decode nor convert names.
+	 */
+	private record Entry(UUID id, CompactBeer beer, String name) {
+
+		Entry(UUID id, BeerDTO beer) {
+			this(id, CompactBeer.of(beer),
+				beer.getBeerName() == null ? "" : beer.getBeerName().toLowerCase(Locale.ROOT));
+		}
+	}
+
+	/**
+	 * @param beerClient supplies the client the replica syncs through, looked up on first use
+	 */
+	public BeerCatalogReplica(Supplier<BeerClient> beerClient, int syncPageSize, Duration syncInterval,
+							  Duration fullSyncInterval, Duration maxStaleness, Clock clock) {
+		this(true, beerClient, syncPageSize, syncInterval, fullSyncInterval, maxStaleness, clock);
+	}
+
+	private BeerCatalogReplica(boolean enabled, Supplier<BeerClient> beerClient, int syncPageSize,
+							   Duration syncInterval, Duration fullSyncInterval, Duration maxStaleness, Clock clock) {
+		this.enabled = enabled;
+		this.beerClient = beerClient;
+		this.syncPageSize = syncPageSize;
+		this.syncInterval = syncInterval;
+		this.fullSyncInterval = fullSyncInterval;
+		this.maxStaleness = maxStaleness;
+		this.clock = clock;
+		this.scheduler = enabled ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "beer-catalog-sync");
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+	}
+
+	public static BeerCatalogReplica disabled() {
+		return new BeerCatalogReplica(false, () -> null, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO,
+			Clock.systemUTC());
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public boolean isFresh() {
+		Instant synced = lastSync;
+		return synced != null && Duration.between(synced, clock.instant()).compareTo(maxStaleness) <= 0;
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return byId.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the page the beer API would return for {@code parameters}, or {@code null} if the replica
+	 * is disabled, too stale or cannot evaluate the parameters
+	 */
+	public Page<BeerDTO> findAllBeers(Map<String, Object> parameters) {
+		if (!enabled) {
+			return null;
+		}
+		startSyncing();
+		if (!isFresh() || !QUERY_PARAMS.containsAll(parameters.keySet())) {
+			return null;
+		}
+
+		String name;
+		BeerStyle style;
+		boolean showInventory;
+		int pageNumber;
+		int pageSize;
+		try {
+			name = text(parameters.get(BEER_NAME_PARAM));
+			String styleName = text(parameters.get(BEER_STYLE_PARAM));
+			style = styleName == null ? null : BeerStyle.valueOf(styleName);
+			Object inventory = parameters.get(SHOW_INVENTORY_PARAM);
+			showInventory = inventory == null || Boolean.parseBoolean(inventory.toString());
+			pageNumber = Math.max(intParameter(parameters, BeerClientImpl.PAGE_NUMBER_PARAM, 1), 1);
+			pageSize = intParameter(parameters, BeerClientImpl.PAGE_SIZE_PARAM, DEFAULT_PAGE_SIZE);
+			pageSize = pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+		} catch (IllegalArgumentException e) {
+			// let the server answer requests it would reject
+			return null;
+		}
+
+		lock.readLock().lock();
+		try {
+			return query(name == null ? null : name.toLowerCase(Locale.ROOT), style, showInventory,
+				pageNumber - 1, pageSize);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the beers with this exact {@code upc}, or {@code null} if the replica cannot answer
+	 */
+	public List<BeerDTO> findByUpc(String upc) {
+		if (!enabled) {
+			return null;
+		}
+		startSyncing();
+		if (!isFresh()) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			return byUpc.getOrDefault(upc, Set.of()).stream()
+				.map(byId::get)
+				.sorted(BY_NAME)
+				.map(entry -> entry.beer().toBeerDTO())
+				.toList();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Takes a beer the client has just written, so the replica reads its own writes before the next sync.
+	 */
+	public void apply(BeerDTO beer) {
+		if (!enabled || beer == null || beer.getId() == null) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			upsert(beer);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(UUID id) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			Entry existing = byId.remove(id);
+			if (existing != null) {
+				unindex(existing);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Runs one sync now: a full one if none has completed within {@code fullSyncInterval}, otherwise an
+	 * incremental one.
+	 */
+	public synchronized void sync() {
+		Instant start = clock.instant();
+		Instant fullSynced = lastFullSync;
+		boolean full = fullSynced == null || Duration.between(fullSynced, start).compareTo(fullSyncInterval) >= 0;
+		Map<String, Object> filters = Map.of();
+		if (!full) {
+			lock.readLock().lock();
+			try {
+				if (highWater != null) {
+					filters = Map.of(UPDATED_SINCE_PARAM, highWater.toString());
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		Set<UUID> seen = full ? new HashSet<>() : null;
+		List<BeerDTO> pageBeers = new ArrayList<>(syncPageSize);
+		long firstTotal = -1;
+		int changed = 0;
+		int page = 0;
+		PageMetadata metadata;
+		do {
+			pageBeers.clear();
+			metadata = beerClient.get().forEachBeer(BeerClientImpl.pageParameters(filters, page++, syncPageSize),
+				pageBeers::add);
+			firstTotal = firstTotal < 0 ? metadata.totalElements() : firstTotal;
+			changed += upsertAll(pageBeers, seen);
+		} while (!metadata.isLast() && metadata.numberOfElements() > 0);
+
+		int removed = 0;
+		if (full && metadata.totalElements() == firstTotal) {
+			removed = retainOnly(seen);
+			lastFullSync = start;
+		} else if (full) {
+			// pages may have shifted while the catalog was walked, so unseen beers are not necessarily gone
+			log.debug("Catalog changed during full sync, keeping beers that were not seen");
+		}
+		lastSync = start;
+		log.debug("{} sync of beer catalog replica: {} changed, {} removed, {} beers",
+			full ? "Full" : "Incremental", changed, removed, size());
+	}
+
+	@Override
+	public void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	private void startSyncing() {
+		if (started.compareAndSet(false, true)) {
+			long initialDelay = lastSync == null ? 0 : syncInterval.toMillis();
+			scheduler.scheduleWithFixedDelay(this::syncQuietly, initialDelay, syncInterval.toMillis(),
+				TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void syncQuietly() {
+		try {
+			sync();
+		} catch (RuntimeException e) {
+			// queries fall back to the server once the replica is too stale
+			log.warn("Beer catalog replica sync failed", e);
+		}
+	}
+
+	private Page<BeerDTO> query(String name, BeerStyle style, boolean showInventory, int page, int pageSize) {
+		long offset = (long) page * pageSize;
+		List<BeerDTO> content = new ArrayList<>(pageSize);
+		long total = 0;
+
+		Collection<Entry> candidates = style == null
+			? byName
+			: byStyle.getOrDefault(style, Collections.emptyNavigableSet());
+		if (name != null && name.length() >= 3) {
+			Set<UUID> rarest = rarestTrigramPosting(name);
+			if (rarest.size() < candidates.size()) {
+				List<Entry> sharingTrigram = new ArrayList<>(rarest.size());
+				for (UUID id : rarest) {
+					sharingTrigram.add(byId.get(id));
+				}
+				sharingTrigram.sort(BY_NAME);
+				candidates = sharingTrigram;
+			}
+		}
+
+		// candidates are in name order, only the requested page is copied
+		for (Entry entry : candidates) {
+			if (!matches(entry, name, style)) {
+				continue;
+			}
+			if (total >= offset && content.size() < pageSize) {
+				BeerDTO copy = entry.beer().toBeerDTO();
+				if (!showInventory) {
+					copy.setQuantityOnHand(null);
+				}
+				content.add(copy);
+			}
+			total++;
+		}
+		return new RestResponsePage<>(content, PageRequest.of(page, pageSize), total);
+	}
+
+	private Set<UUID> rarestTrigramPosting(String name) {
+		Set<UUID> rarest = null;
+		for (long trigram : trigrams(name)) {
+			Set<UUID> posting = byTrigram.getOrDefault(trigram, Set.of());
+			if (rarest == null || posting.size() < rarest.size()) {
+				rarest = posting;
+			}
+		}
+		return rarest;
+	}
+
+	private static boolean matches(Entry entry, String name, BeerStyle style) {
+		return (style == null || style == entry.beer().beerStyle())
+			&& (name == null || entry.name().contains(name));
+	}
+
+	private int upsertAll(List<BeerDTO> beers, Set<UUID> seen) {
+		int changed = 0;
+		lock.writeLock().lock();
+		try {
+			for (BeerDTO beer : beers) {
+				if (beer.getId() == null) {
+					continue;
+				}
+				if (seen != null) {
+					seen.add(beer.getId());
+				}
+				if (upsert(beer)) {
+					changed++;
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+		return changed;
+	}
+
+	private int retainOnly(Set<UUID> ids) {
+		lock.writeLock().lock();
+		try {
+			List<Entry> deleted = byId.values().stream().filter(entry -> !ids.contains(entry.id())).toList();
+			for (Entry entry : deleted) {
+				byId.remove(entry.id());
+				unindex(entry);
+			}
+			return deleted.size();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Called with the write lock held.
+	 *
+	 * @return whether {@code beer} replaced or added anything
+	 */
+	private boolean upsert(BeerDTO beer) {
+		Entry existing = byId.get(beer.getId());
+		if (existing != null && !isNewer(beer, existing.beer())) {
+			return false;
+		}
+		Entry entry;
+		try {
+			entry = new Entry(existing != null ? existing.id() : beer.getId(), beer);
+		} catch (ArithmeticException e) {
+			log.warn("Beer {} does not fit the compact form and is not replicated: {}", beer.getId(), e.getMessage());
+			return false;
+		}
+		if (existing != null) {
+			unindex(existing);
+		}
+		byId.put(entry.id(), entry);
+		byName.add(entry);
+		if (beer.getBeerStyle() != null) {
+			byStyle.computeIfAbsent(beer.getBeerStyle(), style -> new TreeSet<>(BY_NAME)).add(entry);
+		}
+		for (long trigram : trigrams(entry.name())) {
+			byTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(entry.id());
+		}
+		if (beer.getUpc() != null) {
+			byUpc.computeIfAbsent(beer.getUpc(), key -> new HashSet<>()).add(entry.id());
+		}
+		if (beer.getUpdateDate() != null && (highWater == null || beer.getUpdateDate().isAfter(highWater))) {
+			highWater = beer.getUpdateDate();
+		}
+		return true;
+	}
+
+	/**
+	 * Removes {@code entry} from every index but {@code byId}. Called with the write lock held.
+	 */
+	private void unindex(Entry entry) {
+		byName.remove(entry);
+		BeerStyle style = entry.beer().beerStyle();
+		if (style != null) {
+			byStyle.get(style).remove(entry);
+		}
+		for (long trigram : trigrams(entry.name())) {
+			Set<UUID> posting = byTrigram.get(trigram);
+			posting.remove(entry.id());
+			if (posting.isEmpty()) {
+				byTrigram.remove(trigram);
+			}
+		}
+		String upc = entry.beer().upc();
+		if (upc != null) {
+			Set<UUID> posting = byUpc.get(upc);
+			posting.remove(entry.id());
+			if (posting.isEmpty()) {
+				byUpc.remove(upc);
+			}
+		}
+	}
+
+	private static boolean isNewer(BeerDTO beer, CompactBeer existing) {
+		Integer existingVersion = existing.version();
+		if (beer.getVersion() != null && existingVersion != null) {
+			return beer.getVersion() > existingVersion;
+		}
+		LocalDateTime existingUpdate = existing.updateDate();
+		if (beer.getUpdateDate() != null && existingUpdate != null) {
+			return beer.getUpdateDate().isAfter(existingUpdate);
+		}
+		return true;
+	}
+
+	private static Set<Long> trigrams(String text) {
+		Set<Long> trigrams = new HashSet<>();
+		for (int i = 0; i + 3 <= text.length(); i++) {
+			trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+		}
+		return trigrams;
+	}
+
+	private static String text(Object value) {
+		return value == null || value.toString().isBlank() ? null : value.toString();
+	}
+
+	private static int intParameter(Map<String, Object> parameters, String name, int defaultValue) {
+		Object value = parameters.get(name);
+		return value == null ? defaultValue : Integer.parseInt(value.toString());
+	}
+}
@@ -1,16 +1,25 @@
 package guru.springframework.spring6resttemplate.client;
 
 import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface BeerClient {
 	Page<BeerDTO> findAllBeers();
 	Page<BeerDTO> findAllBeers(Map<String, Object> parameters);
+	Page<BeerDTO> findAllBeersAcrossPages(Map<String, Object> parameters, int pageSize, int parallelism);
+	Stream<BeerDTO> streamBeers(Map<String, Object> filters);
+	PageMetadata forEachBeer(Map<String, Object> parameters, Consumer<? super BeerDTO> consumer);
 	BeerDTO findBeerById(UUID beerId);
 	BeerDTO createBeer(BeerDTO newDto);
+	List<BeerDTO> createBeers(List<BeerDTO> newDtos);
 	BeerDTO updateBeer(BeerDTO dto);
+	BeerDTO patchBeer(UUID beerId, BeerDTO original, BeerDTO modified);
 	void deleteBeer(UUID id);
 }
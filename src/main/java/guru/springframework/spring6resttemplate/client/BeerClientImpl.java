@@ -1,75 +1,514 @@
 package guru.springframework.spring6resttemplate.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import guru.springframework.spring6resttemplate.config.AdaptiveConcurrencyLimiter;
 import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
 import guru.springframework.spring6resttemplate.page.RestResponsePage;
-import lombok.RequiredArgsConstructor;
+import guru.springframework.spring6resttemplate.page.StreamingPageReader;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
-@RequiredArgsConstructor
 public class BeerClientImpl implements BeerClient{
 
+	private static final Logger log = LoggerFactory.getLogger(BeerClientImpl.class);
+
 	private final RestTemplate restTemplate;
+	private final ObjectMapper objectMapper;
+	private final BeerDTOCache beerCache;
+	private final RequestCoalescer coalescer;
+	private final BeerCatalogReplica replica;
+	private final ResilientReadExecutor reads;
+
+	@Getter
+	private final WriteMode writeMode;
+	@Getter
+	private final ContentFormat contentFormat;
+
+	// set once the server answered 415 to a binary request body
+	private final AtomicBoolean jsonRequestBodies = new AtomicBoolean();
+	private final Map<MediaType, StreamingPageReader<BeerDTO>> pageReaders = new ConcurrentHashMap<>();
+	// created on first use, once the RestTemplate's root URI is known
+	private volatile BeerRequestUris requestUris;
 
 	public static final String GET_BEER_PATH = "/api/v1/beer";
 	public static final String GET_BEER_PATH_VAR = "/api/v1/beer/{beerId}";
+	public static final String BATCH_BEER_PATH = GET_BEER_PATH + "/batch";
+	public static final String PAGE_NUMBER_PARAM = "pageNumber";
+	public static final String PAGE_SIZE_PARAM = "pageSize";
+	public static final int DEFAULT_STREAM_PAGE_SIZE = 100;
+	public static final String PREFER_HEADER = "Prefer";
+	public static final String RETURN_REPRESENTATION = "return=representation";
+	public static final MediaType MERGE_PATCH_JSON = MediaType.valueOf("application/merge-patch+json");
+
+	private static final ParameterizedTypeReference<RestResponsePage<BeerDTO>> BEER_PAGE_TYPE =
+		new ParameterizedTypeReference<>() {};
+	private static final ParameterizedTypeReference<List<BeerDTO>> BEER_LIST_TYPE =
+		new ParameterizedTypeReference<>() {};
+	// reads without conditional headers share one read-only request entity per format
+	private static final Map<ContentFormat, HttpEntity<Void>> READ_REQUESTS = readRequests();
+
+	public BeerClientImpl(RestTemplate restTemplate, ObjectMapper objectMapper, BeerDTOCache beerCache,
+						  RequestCoalescer coalescer, BeerCatalogReplica replica, ResilientReadExecutor reads) {
+		this(restTemplate, objectMapper, beerCache, coalescer, replica, reads, WriteMode.REPRESENTATION,
+			ContentFormat.JSON);
+	}
+
+	@Autowired
+	public BeerClientImpl(RestTemplate restTemplate, ObjectMapper objectMapper, BeerDTOCache beerCache,
+						  RequestCoalescer coalescer, BeerCatalogReplica replica, ResilientReadExecutor reads,
+						  @Value("${rest.template.write-mode:representation}") WriteMode writeMode,
+						  @Value("${rest.template.content-format:json}") ContentFormat contentFormat) {
+		this.restTemplate = restTemplate;
+		this.objectMapper = objectMapper;
+		this.beerCache = beerCache;
+		this.coalescer = coalescer;
+		this.replica = replica;
+		this.reads = reads;
+		this.writeMode = writeMode;
+		this.contentFormat = contentFormat;
+	}
 
 	@Override
 	public Page<BeerDTO> findAllBeers() {
-		UriComponentsBuilder uriComponentsBuilder = UriComponentsBuilder.fromPath(GET_BEER_PATH);
-		return getResponsePage(uriComponentsBuilder);
+		return findAllBeers(Map.of());
 	}
 
 	@Override
 	public Page<BeerDTO> findAllBeers(Map<String, Object> parameters) {
-		UriComponentsBuilder uriComponentsBuilder = UriComponentsBuilder.fromPath(GET_BEER_PATH);
-		if (!parameters.isEmpty()) {
-			parameters.forEach((key, value) -> uriComponentsBuilder.queryParam(key, value.toString()));
+		if (replica.isEnabled()) {
+			Page<BeerDTO> local = replica.findAllBeers(parameters);
+			if (local != null) {
+				return local;
+			}
+		}
+		return coalescer.execute(pageKey(parameters),
+			() -> getResponsePage(requestUris().beerList(parameters)),
+			BeerClientImpl::copyPage);
+	}
+
+	@Override
+	public PageMetadata forEachBeer(Map<String, Object> parameters, Consumer<? super BeerDTO> consumer) {
+		return restTemplate.execute(
+			requestUris().beerList(parameters),
+			HttpMethod.GET,
+			request -> request.getHeaders().setAccept(contentFormat.getAccept()),
+			response -> pageReader(response.getHeaders().getContentType()).read(response.getBody(), consumer)
+		);
+	}
+
+	/**
+	 * Streaming reader for the format the server answered in, using the {@link ObjectMapper} of the
+	 * converter that would bind that format.
+	 */
+	private StreamingPageReader<BeerDTO> pageReader(MediaType contentType) {
+		MediaType type = contentType == null
+			? MediaType.APPLICATION_JSON
+			: new MediaType(contentType.getType(), contentType.getSubtype());
+		return pageReaders.computeIfAbsent(type, key -> new StreamingPageReader<>(objectMapperFor(key), BeerDTO.class));
+	}
+
+	private ObjectMapper objectMapperFor(MediaType type) {
+		if (!MediaType.APPLICATION_JSON.isCompatibleWith(type)) {
+			for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+				if (converter instanceof AbstractJackson2HttpMessageConverter jackson
+					&& jackson.canRead(BeerDTO.class, type)) {
+					return jackson.getObjectMapper();
+				}
+			}
+		}
+		return objectMapper;
+	}
+
+	@Override
+	public Page<BeerDTO> findAllBeersAcrossPages(Map<String, Object> parameters, int pageSize, int parallelism) {
+		Page<BeerDTO> firstPage = findAllBeers(pageParameters(parameters, 0, pageSize));
+		int totalPages = firstPage.getTotalPages();
+		if (totalPages <= 1) {
+			return firstPage;
+		}
+
+		Semaphore permits = new Semaphore(clampToLimiter(parallelism));
+		List<Future<Page<BeerDTO>>> remainingPages = new ArrayList<>(totalPages - 1);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int page = 1; page < totalPages; page++) {
+				Map<String, Object> pageParameters = pageParameters(parameters, page, pageSize);
+				remainingPages.add(executor.submit(() -> {
+					permits.acquire();
+					try {
+						return findAllBeers(pageParameters);
+					} finally {
+						permits.release();
+					}
+				}));
+			}
+
+			List<BeerDTO> content = new ArrayList<>(Math.toIntExact(firstPage.getTotalElements()));
+			content.addAll(firstPage.getContent());
+			for (Future<Page<BeerDTO>> page : remainingPages) {
+				content.addAll(awaitPage(page, executor));
+			}
+			// one page holding the whole walk, with the totals the server reported for it
+			return new RestResponsePage<>(content, PageRequest.of(0, Math.max(content.size(), 1)),
+				firstPage.getTotalElements());
+		}
+	}
+
+	/**
+	 * More pages in flight than the concurrency limiter lets through would only queue for a slot and be
+	 * rejected once they waited too long, so the walk stays within the limiter's current limit.
+	 */
+	private int clampToLimiter(int parallelism) {
+		for (ClientHttpRequestInterceptor interceptor : restTemplate.getInterceptors()) {
+			if (interceptor instanceof AdaptiveConcurrencyLimiter limiter) {
+				return Math.max(1, Math.min(parallelism, limiter.getLimit(GET_BEER_PATH)));
+			}
+		}
+		return parallelism;
+	}
+
+	@Override
+	public Stream<BeerDTO> streamBeers(Map<String, Object> filters) {
+		int pageSize = Integer.parseInt(String.valueOf(filters.getOrDefault(PAGE_SIZE_PARAM, DEFAULT_STREAM_PAGE_SIZE)));
+		PrefetchingPageSpliterator spliterator = new PrefetchingPageSpliterator(
+			page -> findAllBeers(pageParameters(filters, page, pageSize)));
+		return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+	}
+
+	/**
+	 * Copies {@code parameters} with the paging parameters for the zero based {@code page}.
+	 * The beer API numbers its pages from 1.
+	 */
+	public static Map<String, Object> pageParameters(Map<String, Object> parameters, int page, int pageSize) {
+		Map<String, Object> pageParameters = new LinkedHashMap<>(parameters);
+		pageParameters.put(PAGE_NUMBER_PARAM, page + 1);
+		pageParameters.put(PAGE_SIZE_PARAM, pageSize);
+		return pageParameters;
+	}
+
+	private static List<BeerDTO> awaitPage(Future<Page<BeerDTO>> page, ExecutorService executor) {
+		try {
+			return page.get().getContent();
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while fetching beer pages", e);
+		} catch (ExecutionException e) {
+			// no point in finishing the walk once one page has failed
+			executor.shutdownNow();
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException("Failed to fetch beer page", e.getCause());
 		}
-		return getResponsePage(uriComponentsBuilder);
 	}
 
 	@Override
 	public BeerDTO findBeerById(UUID beerId) {
-		return restTemplate.getForObject(GET_BEER_PATH_VAR, BeerDTO.class, beerId);
+		if (beerCache.isEnabled()) {
+			BeerDTOCache.CachedBeer cached = beerCache.get(beerId);
+			if (cached != null && beerCache.isFresh(cached)) {
+				beerCache.recordHit();
+				return cached.beer();
+			}
+		}
+		return coalescer.execute("GET " + GET_BEER_PATH + "/" + beerId,
+			() -> fetchBeer(beerId),
+			BeerDTOCache::copy);
+	}
+
+	private BeerDTO fetchBeer(UUID beerId) {
+		if (!beerCache.isEnabled()) {
+			URI uri = requestUris().beer(beerId);
+			return reads.execute(ResilientReadExecutor.FIND_BY_ID, () -> restTemplate.exchange(
+				uri, HttpMethod.GET, READ_REQUESTS.get(contentFormat), BeerDTO.class)).getBody();
+		}
+
+		// taken first, so an update or delete from here on keeps this read out of the cache
+		long generation = beerCache.generation(beerId);
+		BeerDTOCache.CachedBeer cached = beerCache.get(beerId);
+		HttpHeaders headers = acceptHeaders();
+		if (cached != null && cached.etag() != null) {
+			headers.setIfNoneMatch(cached.etag());
+		}
+		if (cached != null && cached.lastModified() >= 0) {
+			headers.setIfModifiedSince(cached.lastModified());
+		}
+
+		URI uri = requestUris().beer(beerId);
+		ResponseEntity<BeerDTO> response = reads.execute(ResilientReadExecutor.FIND_BY_ID, () -> restTemplate.exchange(
+			uri, HttpMethod.GET, new HttpEntity<>(headers), BeerDTO.class));
+
+		if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+			beerCache.recordRevalidation();
+			beerCache.revalidated(beerId, generation, cached);
+			return cached.beer();
+		}
+
+		beerCache.recordMiss();
+		beerCache.putIfUnchanged(beerId, generation, response.getBody(),
+			response.getHeaders().getETag(), response.getHeaders().getLastModified());
+		return response.getBody();
 	}
 
 	@Override
 	public BeerDTO createBeer(BeerDTO newDto) {
-		URI uri = restTemplate.postForLocation(GET_BEER_PATH, newDto, BeerDTO.class);
-		return restTemplate.getForObject(uri.getPath(), BeerDTO.class);
+		if (writeMode == WriteMode.FOLLOW_UP_GET) {
+			URI uri = sendBody(headers ->
+				restTemplate.postForLocation(GET_BEER_PATH, new HttpEntity<>(newDto, headers), BeerDTO.class));
+			BeerDTO created = restTemplate.exchange(
+				uri.getPath(), HttpMethod.GET, new HttpEntity<>(acceptHeaders()), BeerDTO.class).getBody();
+			if (created != null) {
+				beerCache.put(created.getId(), created, null, -1);
+				replica.apply(created);
+			}
+			return created;
+		}
+
+		ResponseEntity<BeerDTO> response = sendBody(headers -> restTemplate.exchange(
+			GET_BEER_PATH, HttpMethod.POST, new HttpEntity<>(newDto, preferRepresentation(headers)), BeerDTO.class));
+		if (response.getBody() == null) {
+			return findBeerById(beerIdFromLocation(response.getHeaders().getLocation()));
+		}
+		cacheWritten(response);
+		return response.getBody();
 	}
 
-	private Page<BeerDTO> getResponsePage(
-		UriComponentsBuilder uriComponentsBuilder
-	) {
-		ResponseEntity<RestResponsePage<BeerDTO>> pageResponse = restTemplate.exchange(
-			uriComponentsBuilder.build().toUriString(),
-			HttpMethod.GET,
-			null,
-			new ParameterizedTypeReference<>() {}
-		);
+	/**
+	 * Creates all beers with one request to the batch endpoint. Servers without one answer
+	 * {@code 404}, {@code 405} or {@code 501}, which surface as the usual {@code RestClientResponseException}s.
+	 */
+	@Override
+	public List<BeerDTO> createBeers(List<BeerDTO> newDtos) {
+		ResponseEntity<List<BeerDTO>> response = sendBody(headers -> restTemplate.exchange(
+			BATCH_BEER_PATH, HttpMethod.POST, new HttpEntity<>(newDtos, headers), BEER_LIST_TYPE));
+		List<BeerDTO> created = response.getBody();
+		if (created == null) {
+			return List.of();
+		}
+		created.forEach(beer -> {
+			beerCache.put(beer.getId(), beer, null, -1);
+			replica.apply(beer);
+		});
+		return created;
+	}
+
+	private static HttpHeaders preferRepresentation(HttpHeaders headers) {
+		headers.set(PREFER_HEADER, RETURN_REPRESENTATION);
+		return headers;
+	}
+
+	private static Map<ContentFormat, HttpEntity<Void>> readRequests() {
+		Map<ContentFormat, HttpEntity<Void>> requests = new EnumMap<>(ContentFormat.class);
+		for (ContentFormat format : ContentFormat.values()) {
+			HttpHeaders headers = new HttpHeaders();
+			headers.setAccept(format.getAccept());
+			requests.put(format, new HttpEntity<>(HttpHeaders.readOnlyHttpHeaders(headers)));
+		}
+		return requests;
+	}
+
+	private BeerRequestUris requestUris() {
+		BeerRequestUris uris = requestUris;
+		if (uris == null) {
+			uris = new BeerRequestUris(restTemplate.getUriTemplateHandler());
+			requestUris = uris;
+		}
+		return uris;
+	}
+
+	private HttpHeaders acceptHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(contentFormat.getAccept());
+		return headers;
+	}
+
+	/**
+	 * Runs {@code request} with headers for a body in the configured format. A server that cannot read
+	 * it answers {@code 415}; the request is then repeated once with JSON, which is used for all later
+	 * bodies as well.
+	 */
+	private <T> T sendBody(Function<HttpHeaders, T> request) {
+		boolean json = contentFormat == ContentFormat.JSON || jsonRequestBodies.get();
+		try {
+			return request.apply(bodyHeaders(json));
+		} catch (HttpClientErrorException.UnsupportedMediaType e) {
+			if (json) {
+				throw e;
+			}
+			if (jsonRequestBodies.compareAndSet(false, true)) {
+				log.info("Server does not accept {} request bodies, sending JSON", contentFormat);
+			}
+			return request.apply(bodyHeaders(true));
+		}
+	}
+
+	private HttpHeaders bodyHeaders(boolean json) {
+		HttpHeaders headers = acceptHeaders();
+		headers.setContentType(json ? MediaType.APPLICATION_JSON : contentFormat.getMediaType());
+		return headers;
+	}
+
+	static UUID beerIdFromLocation(URI location) {
+		String path = location.getPath();
+		return UUID.fromString(path.substring(path.lastIndexOf('/') + 1));
+	}
+
+	private void cacheWritten(ResponseEntity<BeerDTO> response) {
+		BeerDTO written = response.getBody();
+		beerCache.put(written.getId(), written,
+			response.getHeaders().getETag(), response.getHeaders().getLastModified());
+		replica.apply(written);
+	}
+
+	/**
+	 * Coalescing key for a list request. Parameters are sorted so that the same query
+	 * built from differently ordered maps shares one request.
+	 */
+	private static String pageKey(Map<String, Object> parameters) {
+		StringBuilder key = new StringBuilder("GET ").append(GET_BEER_PATH);
+		return BeerRequestUris.appendQuery(key, parameters.size() > 1 ? new TreeMap<>(parameters) : parameters)
+			.toString();
+	}
+
+	private static Page<BeerDTO> copyPage(Page<BeerDTO> page) {
+		return new RestResponsePage<>(
+			page.getContent().stream().map(BeerDTOCache::copy).toList(),
+			page.getPageable(),
+			page.getTotalElements());
+	}
+
+	/**
+	 * Relative, encoded list URI for {@code parameters}, as requested by {@link #findAllBeers(Map)}.
+	 */
+	public static String beerListUri(Map<String, Object> parameters) {
+		return BeerRequestUris.appendQuery(new StringBuilder(GET_BEER_PATH), parameters).toString();
+	}
+
+	private Page<BeerDTO> getResponsePage(URI uri) {
+		ResponseEntity<RestResponsePage<BeerDTO>> pageResponse = reads.execute(ResilientReadExecutor.FIND_ALL,
+			() -> restTemplate.exchange(
+				uri,
+				HttpMethod.GET,
+				READ_REQUESTS.get(contentFormat),
+				BEER_PAGE_TYPE
+			));
 		return pageResponse.getBody();
 	}
 
 	@Override
 	public BeerDTO updateBeer(BeerDTO dto) {
-		restTemplate.put(GET_BEER_PATH_VAR, dto, dto.getId());
-		return findBeerById(dto.getId());
+		if (writeMode == WriteMode.FOLLOW_UP_GET) {
+			sendBody(headers -> {
+				restTemplate.put(requestUris().beer(dto.getId()), new HttpEntity<>(dto, headers));
+				return null;
+			});
+			beerCache.invalidate(dto.getId());
+			BeerDTO updated = findBeerById(dto.getId());
+			replica.apply(updated);
+			return updated;
+		}
+
+		ResponseEntity<BeerDTO> response = sendBody(headers -> restTemplate.exchange(
+			requestUris().beer(dto.getId()), HttpMethod.PUT, new HttpEntity<>(dto, preferRepresentation(headers)),
+			BeerDTO.class));
+		beerCache.invalidate(dto.getId());
+		if (response.getBody() == null) {
+			BeerDTO updated = findBeerById(dto.getId());
+			replica.apply(updated);
+			return updated;
+		}
+		cacheWritten(response);
+		return response.getBody();
+	}
+
+	/**
+	 * Sends only what differs between {@code original} and {@code modified}, as a JSON merge patch. The
+	 * original's version goes into {@code If-Match}, so a beer changed in the meantime fails with
+	 * {@code 412 Precondition Failed} instead of being overwritten. Without differences nothing is sent.
+	 */
+	@Override
+	public BeerDTO patchBeer(UUID beerId, BeerDTO original, BeerDTO modified) {
+		ObjectNode patch = JsonMergePatch.diff(objectMapper.valueToTree(original), objectMapper.valueToTree(modified));
+		// the id travels in the URI and the version in If-Match
+		patch.remove(List.of("id", "version"));
+		if (patch.isEmpty()) {
+			return BeerDTOCache.copy(original);
+		}
+
+		HttpHeaders headers = acceptHeaders();
+		headers.setContentType(MERGE_PATCH_JSON);
+		if (original.getVersion() != null) {
+			headers.setIfMatch("\"" + original.getVersion() + "\"");
+		}
+		if (writeMode == WriteMode.REPRESENTATION) {
+			preferRepresentation(headers);
+		}
+
+		ResponseEntity<BeerDTO> response;
+		try {
+			response = restTemplate.exchange(
+				requestUris().beer(beerId), HttpMethod.PATCH, new HttpEntity<>(patch, headers), BeerDTO.class);
+		} finally {
+			// also after a 412, since the cached copy is then known to be stale
+			beerCache.invalidate(beerId);
+		}
+		if (response.getBody() == null) {
+			BeerDTO patched = findBeerById(beerId);
+			replica.apply(patched);
+			return patched;
+		}
+		cacheWritten(response);
+		return response.getBody();
 	}
 
 	@Override
 	public void deleteBeer(UUID id) {
-		restTemplate.delete(GET_BEER_PATH_VAR, id);
+		try {
+			restTemplate.delete(requestUris().beer(id));
+		} finally {
+			beerCache.invalidate(id);
+		}
+		replica.remove(id);
 	}
 }
\ No newline at end of file
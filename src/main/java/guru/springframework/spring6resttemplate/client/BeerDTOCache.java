@@ -0,0 +1,217 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.CompactBeer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache of beers by id for {@link BeerClientImpl}.
+ * <p>
+ * An entry is served without a request while it is younger than the TTL. After that it is
+ * kept together with its validators ({@code ETag}, {@code Last-Modified}) so the next lookup
+ * can be a conditional GET, and a {@code 304} costs no body transfer or binding.
+ * Beers are stored as {@link CompactBeer}s, about a third of the heap a {@link BeerDTO} takes; one whose
+ * price or dates do not fit that form is not cached. A cache with {@code maxSize} 0 is disabled.
+ * <p>
+ * Writes and invalidations bump a generation per id (striped, so ids may share one). A read stores what it
+ * fetched only if the generation it took before sending the request is still current, so a response that
+ * was in flight while the beer changed cannot put the old state back.
+ */
+public class BeerDTOCache {
+
+	/**
+	 * The beer is kept as a {@link CompactBeer}; {@link #beer()} returns a new {@link BeerDTO} on every call.
+	 */
+	public record CachedBeer(CompactBeer compact, String etag, long lastModified, Instant storedAt) {
+
+		public CachedBeer(BeerDTO beer, String etag, long lastModified, Instant storedAt) {
+			this(CompactBeer.of(beer), etag, lastModified, storedAt);
+		}
+
+		public BeerDTO beer() {
+			return compact.toBeerDTO();
+		}
+	}
+
+	private static final int GENERATION_STRIPES = 256;
+	// generation() of a write, which always stores and starts a new generation
+	private static final long WRITE = -1;
+
+	private final int maxSize;
+	private final Duration ttl;
+	private final Clock clock;
+	private final Map<UUID, CachedBeer> entries;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final long[] generations = new long[GENERATION_STRIPES];
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder revalidations = new LongAdder();
+
+	public BeerDTOCache(int maxSize, Duration ttl, Clock clock) {
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<UUID, CachedBeer> eldest) {
+				return size() > BeerDTOCache.this.maxSize;
+			}
+		};
+	}
+
+	public static BeerDTOCache disabled() {
+		return new BeerDTOCache(0, Duration.ZERO, Clock.systemUTC());
+	}
+
+	public boolean isEnabled() {
+		return maxSize > 0;
+	}
+
+	/**
+	 * @return the entry for {@code id}, fresh or not, or {@code null}
+	 */
+	public CachedBeer get(UUID id) {
+		lock.lock();
+		try {
+			return entries.get(id);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * To be taken before a read is sent and handed to {@link #putIfUnchanged} or {@link #revalidated}.
+	 */
+	public long generation(UUID id) {
+		lock.lock();
+		try {
+			return generations[stripe(id)];
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public boolean isFresh(CachedBeer cached) {
+		return clock.instant().isBefore(cached.storedAt().plus(ttl));
+	}
+
+	/**
+	 * Stores the state a write left {@code beer} in.
+	 */
+	public void put(UUID id, BeerDTO beer, String etag, long lastModified) {
+		store(id, beer, etag, lastModified, WRITE);
+	}
+
+	/**
+	 * Stores a fetched beer unless it was written or invalidated since {@code generation} was taken.
+	 */
+	public void putIfUnchanged(UUID id, long generation, BeerDTO beer, String etag, long lastModified) {
+		store(id, beer, etag, lastModified, generation);
+	}
+
+	/**
+	 * Restarts the TTL of an entry the server confirmed with {@code 304 Not Modified}, unless it was
+	 * written or invalidated since {@code generation} was taken.
+	 */
+	public void revalidated(UUID id, long generation, CachedBeer cached) {
+		if (isEnabled()) {
+			store(id, new CachedBeer(cached.compact(), cached.etag(), cached.lastModified(), clock.instant()),
+				generation);
+		}
+	}
+
+	private void store(UUID id, BeerDTO beer, String etag, long lastModified, long generation) {
+		if (!isEnabled() || id == null || beer == null) {
+			return;
+		}
+		CompactBeer compact;
+		try {
+			compact = CompactBeer.of(beer);
+		} catch (ArithmeticException e) {
+			invalidate(id);
+			return;
+		}
+		store(id, new CachedBeer(compact, etag, lastModified, clock.instant()), generation);
+	}
+
+	private void store(UUID id, CachedBeer cached, long generation) {
+		lock.lock();
+		try {
+			int stripe = stripe(id);
+			if (generation == WRITE) {
+				generations[stripe]++;
+			} else if (generation != generations[stripe]) {
+				return;
+			}
+			entries.put(id, cached);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void invalidate(UUID id) {
+		if (!isEnabled()) {
+			return;
+		}
+		lock.lock();
+		try {
+			generations[stripe(id)]++;
+			entries.remove(id);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static int stripe(UUID id) {
+		return id.hashCode() & (GENERATION_STRIPES - 1);
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void recordHit() {
+		hits.increment();
+	}
+
+	void recordMiss() {
+		misses.increment();
+	}
+
+	void recordRevalidation() {
+		revalidations.increment();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getRevalidationCount() {
+		return revalidations.sum();
+	}
+
+	/**
+	 * {@link BeerDTO} is mutable, so neither callers nor the cache may hold on to the other's instance.
+	 */
+	static BeerDTO copy(BeerDTO beer) {
+		return beer.toBuilder().build();
+	}
+}
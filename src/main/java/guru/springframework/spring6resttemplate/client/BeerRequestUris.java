@@ -0,0 +1,75 @@
+package guru.springframework.spring6resttemplate.client;
+
+import org.springframework.web.util.UriTemplateHandler;
+import org.springframework.web.util.UriUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+
+/**
+ * Request URIs of {@link BeerClientImpl}, built without the {@code RestTemplate} URI template engine. The
+ * beer path is expanded against the root URI once; ids, numbers and enum values need no encoding and other
+ * values are only encoded when they contain something outside the unreserved characters.
+ */
+public final class BeerRequestUris {
+
+	private final String beerPath;
+	private final URI beerList;
+
+	public BeerRequestUris(UriTemplateHandler uriTemplateHandler) {
+		this.beerList = uriTemplateHandler.expand(GET_BEER_PATH);
+		this.beerPath = beerList.toString();
+	}
+
+	public URI beer(UUID beerId) {
+		return URI.create(beerPath + '/' + beerId);
+	}
+
+	public URI beerList(Map<String, Object> parameters) {
+		if (parameters.isEmpty()) {
+			return beerList;
+		}
+		return URI.create(appendQuery(new StringBuilder(beerPath.length() + 64).append(beerPath), parameters).toString());
+	}
+
+	/**
+	 * Appends {@code parameters} as an encoded query, in the map's order.
+	 */
+	static StringBuilder appendQuery(StringBuilder uri, Map<String, Object> parameters) {
+		char separator = '?';
+		for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+			uri.append(separator);
+			appendEncoded(uri, parameter.getKey()).append('=');
+			Object value = parameter.getValue();
+			if (value instanceof Integer number) {
+				uri.append(number.intValue());
+			} else if (value instanceof Long number) {
+				uri.append(number.longValue());
+			} else if (value instanceof UUID || value instanceof Enum<?>) {
+				uri.append(value);
+			} else {
+				appendEncoded(uri, value.toString());
+			}
+			separator = '&';
+		}
+		return uri;
+	}
+
+	private static StringBuilder appendEncoded(StringBuilder uri, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (!isUnreserved(value.charAt(i))) {
+				return uri.append(UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+			}
+		}
+		return uri.append(value);
+	}
+
+	private static boolean isUnreserved(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+			|| c == '-' || c == '.' || c == '_' || c == '~';
+	}
+}
@@ -0,0 +1,41 @@
+package guru.springframework.spring6resttemplate.client;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payload format {@link BeerClientImpl} asks for and sends. A binary format is preferred in {@code Accept}
+ * with JSON as the fallback, so a server that only speaks JSON keeps answering in JSON.
+ */
+public enum ContentFormat {
+	JSON(MediaType.APPLICATION_JSON),
+	/**
+	 * Binary JSON, {@code application/x-jackson-smile}. Smaller than JSON and cheaper to parse, mainly
+	 * because repeated field names are sent once per page.
+	 */
+	SMILE(new MediaType("application", "x-jackson-smile")),
+	/**
+	 * {@code application/cbor} (RFC 8949).
+	 */
+	CBOR(MediaType.APPLICATION_CBOR);
+
+	private final MediaType mediaType;
+	private final List<MediaType> accept;
+
+	ContentFormat(MediaType mediaType) {
+		this.mediaType = mediaType;
+		this.accept = MediaType.APPLICATION_JSON.equals(mediaType)
+			? List.of(mediaType)
+			: List.of(mediaType, new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.5")));
+	}
+
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	public List<MediaType> getAccept() {
+		return accept;
+	}
+}
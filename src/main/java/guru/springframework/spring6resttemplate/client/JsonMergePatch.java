@@ -0,0 +1,58 @@
+package guru.springframework.spring6resttemplate.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Comparator;
+
+/**
+ * Computes JSON Merge Patch documents (RFC 7396).
+ */
+final class JsonMergePatch {
+
+	/**
+	 * Numbers are equal by value, so {@code 12.5} and {@code 12.50} - which {@code DecimalNode.equals} tells
+	 * apart by scale - are no change.
+	 */
+	private static final Comparator<JsonNode> SAME_VALUE = (a, b) -> {
+		if (a.isNumber() && b.isNumber()) {
+			return a.decimalValue().compareTo(b.decimalValue());
+		}
+		return a.equals(b) ? 0 : 1;
+	};
+
+	private JsonMergePatch() {
+	}
+
+	/**
+	 * The smallest patch that turns {@code original} into {@code modified}: changed and added members carry
+	 * their new value, removed ones {@code null}, and nested objects are patched member by member. Arrays can
+	 * only be replaced as a whole. A member that is missing on one side and {@code null} on the other is
+	 * unchanged.
+	 */
+	static ObjectNode diff(ObjectNode original, ObjectNode modified) {
+		ObjectNode patch = JsonNodeFactory.instance.objectNode();
+		original.fields().forEachRemaining(field -> {
+			if (!modified.has(field.getKey()) && !field.getValue().isNull()) {
+				patch.putNull(field.getKey());
+			}
+		});
+		modified.fields().forEachRemaining(field -> {
+			JsonNode before = original.get(field.getKey());
+			JsonNode after = field.getValue();
+			if (before == null ? after.isNull() : before.equals(SAME_VALUE, after)) {
+				return;
+			}
+			if (before instanceof ObjectNode beforeObject && after instanceof ObjectNode afterObject) {
+				ObjectNode nested = diff(beforeObject, afterObject);
+				if (!nested.isEmpty()) {
+					patch.set(field.getKey(), nested);
+				}
+			} else {
+				patch.set(field.getKey(), after);
+			}
+		});
+		return patch;
+	}
+}
@@ -0,0 +1,94 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.springframework.data.domain.Page;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Walks a paged listing one page at a time. While page N is being consumed, page N+1 is
+ * already being fetched on a virtual thread. Only those two pages are ever referenced, so
+ * memory stays bounded regardless of the catalog size.
+ */
+class PrefetchingPageSpliterator extends Spliterators.AbstractSpliterator<BeerDTO> implements AutoCloseable {
+
+	private final IntFunction<Page<BeerDTO>> pageFetcher;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	private Iterator<BeerDTO> current = Collections.emptyIterator();
+	private Future<Page<BeerDTO>> next;
+	private int nextPage;
+	private boolean lastPageSeen;
+
+	/**
+	 * @param pageFetcher fetches the page with the given zero based index
+	 */
+	PrefetchingPageSpliterator(IntFunction<Page<BeerDTO>> pageFetcher) {
+		super(Long.MAX_VALUE, ORDERED | NONNULL);
+		this.pageFetcher = pageFetcher;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super BeerDTO> action) {
+		while (!current.hasNext()) {
+			if (!advancePage()) {
+				close();
+				return false;
+			}
+		}
+		action.accept(current.next());
+		return true;
+	}
+
+	/**
+	 * Cancels the prefetch that may still be in flight.
+	 */
+	@Override
+	public void close() {
+		if (next != null) {
+			next.cancel(true);
+			next = null;
+		}
+		executor.shutdownNow();
+	}
+
+	private boolean advancePage() {
+		if (lastPageSeen) {
+			return false;
+		}
+		Page<BeerDTO> page = await(next != null ? next : fetch(nextPage));
+		nextPage++;
+		lastPageSeen = page.isLast() || page.getContent().isEmpty();
+		next = lastPageSeen ? null : fetch(nextPage);
+		current = page.getContent().iterator();
+		return true;
+	}
+
+	private Future<Page<BeerDTO>> fetch(int page) {
+		return executor.submit(() -> pageFetcher.apply(page));
+	}
+
+	private Page<BeerDTO> await(Future<Page<BeerDTO>> page) {
+		try {
+			return page.get();
+		} catch (InterruptedException e) {
+			close();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while fetching beer page", e);
+		} catch (ExecutionException e) {
+			close();
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException("Failed to fetch beer page", e.getCause());
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface ReactiveBeerClient {
+	Flux<BeerDTO> findAllBeers();
+	Flux<BeerDTO> findAllBeers(Map<String, Object> parameters);
+	Mono<BeerDTO> findBeerById(UUID beerId);
+	Mono<BeerDTO> createBeer(BeerDTO newDto);
+	Mono<BeerDTO> updateBeer(BeerDTO dto);
+	Mono<Void> deleteBeer(UUID id);
+}
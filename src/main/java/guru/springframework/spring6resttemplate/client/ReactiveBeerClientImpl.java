@@ -0,0 +1,123 @@
+package guru.springframework.spring6resttemplate.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
+import guru.springframework.spring6resttemplate.page.StreamingPageDecoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.DEFAULT_STREAM_PAGE_SIZE;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.PAGE_NUMBER_PARAM;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.PAGE_SIZE_PARAM;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.PREFER_HEADER;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.RETURN_REPRESENTATION;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveBeerClientImpl implements ReactiveBeerClient {
+
+	private final WebClient webClient;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public Flux<BeerDTO> findAllBeers() {
+		return findAllBeers(Map.of());
+	}
+
+	/**
+	 * Emits every beer matching {@code parameters}, starting at their {@code pageNumber} (or the first page).
+	 * Elements are emitted while a page body is still arriving, and the next page is only requested
+	 * once the current one is complete and the subscriber still has demand.
+	 */
+	@Override
+	public Flux<BeerDTO> findAllBeers(Map<String, Object> parameters) {
+		int firstPage = Integer.parseInt(String.valueOf(parameters.getOrDefault(PAGE_NUMBER_PARAM, 1))) - 1;
+		int pageSize = Integer.parseInt(String.valueOf(parameters.getOrDefault(PAGE_SIZE_PARAM, DEFAULT_STREAM_PAGE_SIZE)));
+
+		return Flux.defer(() -> {
+			AtomicReference<PageMetadata> previous = new AtomicReference<>();
+			return Flux.<Integer, Integer>generate(() -> firstPage, (page, sink) -> {
+					PageMetadata last = previous.get();
+					if (last != null && last.isLast()) {
+						sink.complete();
+					} else {
+						sink.next(page);
+					}
+					return page + 1;
+				})
+				// no prefetch: a page number is only generated after the previous page has completed
+				.concatMap(page -> fetchPage(BeerClientImpl.pageParameters(parameters, page, pageSize), previous::set), 0);
+		});
+	}
+
+	private Flux<BeerDTO> fetchPage(Map<String, Object> parameters, Consumer<PageMetadata> onMetadata) {
+		StreamingPageDecoder<BeerDTO> pageDecoder = new StreamingPageDecoder<>(objectMapper, BeerDTO.class);
+		Flux<DataBuffer> body = webClient.get()
+			.uri(uriBuilder -> {
+				uriBuilder.path(GET_BEER_PATH);
+				parameters.forEach(uriBuilder::queryParam);
+				return uriBuilder.build();
+			})
+			.accept(MediaType.APPLICATION_JSON)
+			.retrieve()
+			.bodyToFlux(DataBuffer.class);
+		return pageDecoder.decode(body, onMetadata);
+	}
+
+	@Override
+	public Mono<BeerDTO> findBeerById(UUID beerId) {
+		return webClient.get()
+			.uri(GET_BEER_PATH_VAR, beerId)
+			.accept(MediaType.APPLICATION_JSON)
+			.retrieve()
+			.bodyToMono(BeerDTO.class);
+	}
+
+	@Override
+	public Mono<BeerDTO> createBeer(BeerDTO newDto) {
+		return webClient.post()
+			.uri(GET_BEER_PATH)
+			.header(PREFER_HEADER, RETURN_REPRESENTATION)
+			.bodyValue(newDto)
+			.retrieve()
+			.toEntity(BeerDTO.class)
+			.flatMap(response -> response.getBody() != null
+				? Mono.just(response.getBody())
+				: findBeerById(BeerClientImpl.beerIdFromLocation(response.getHeaders().getLocation())));
+	}
+
+	@Override
+	public Mono<BeerDTO> updateBeer(BeerDTO dto) {
+		return webClient.put()
+			.uri(GET_BEER_PATH_VAR, dto.getId())
+			.header(PREFER_HEADER, RETURN_REPRESENTATION)
+			.bodyValue(dto)
+			.retrieve()
+			.toEntity(BeerDTO.class)
+			.flatMap(response -> response.getBody() != null
+				? Mono.just(response.getBody())
+				: findBeerById(dto.getId()));
+	}
+
+	@Override
+	public Mono<Void> deleteBeer(UUID id) {
+		return webClient.delete()
+			.uri(GET_BEER_PATH_VAR, id)
+			.retrieve()
+			.toBodilessEntity()
+			.then();
+	}
+}
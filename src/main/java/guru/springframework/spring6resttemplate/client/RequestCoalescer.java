@@ -0,0 +1,93 @@
+package guru.springframework.spring6resttemplate.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-flight for identical reads: while a call for a key is in flight, further callers
+ * with the same key wait for it instead of issuing their own request.
+ * <p>
+ * Followers receive a copy of the leader's result, and a failure is rethrown to every waiter.
+ */
+public class RequestCoalescer {
+
+	private static class InFlight {
+		final CompletableFuture<Object> result = new CompletableFuture<>();
+		final AtomicInteger followers = new AtomicInteger();
+	}
+
+	private final boolean enabled;
+	private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder coalesced = new LongAdder();
+
+	public RequestCoalescer(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public static RequestCoalescer disabled() {
+		return new RequestCoalescer(false);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T execute(String key, Supplier<T> call, UnaryOperator<T> copier) {
+		if (!enabled) {
+			return call.get();
+		}
+
+		InFlight mine = new InFlight();
+		// compute() runs atomically per key, so a follower is counted before the leader can remove the entry
+		InFlight current = inFlight.compute(key, (k, existing) -> {
+			if (existing == null) {
+				return mine;
+			}
+			existing.followers.incrementAndGet();
+			return existing;
+		});
+
+		if (current != mine) {
+			coalesced.increment();
+			T shared = (T) await(current.result);
+			return shared == null ? null : copier.apply(shared);
+		}
+
+		T result;
+		try {
+			result = call.get();
+		} catch (RuntimeException | Error e) {
+			inFlight.remove(key, mine);
+			mine.result.completeExceptionally(e);
+			throw e;
+		}
+		inFlight.remove(key, mine);
+		// followers copy from a snapshot the leader's caller cannot mutate underneath them
+		mine.result.complete(mine.followers.get() > 0 && result != null ? copier.apply(result) : result);
+		return result;
+	}
+
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	private static Object await(CompletableFuture<Object> result) {
+		try {
+			return result.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+}
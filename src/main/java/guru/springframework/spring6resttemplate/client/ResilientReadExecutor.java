@@ -0,0 +1,467 @@
+package guru.springframework.spring6resttemplate.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedging, retries and a circuit breaker for idempotent reads, kept per operation. Only reads may be passed
+ * in: a call can run twice concurrently and several times in a row.
+ * <ul>
+ * <li>If an attempt has not answered after the configured percentile of recent latencies, a second one is
+ * started; the first result wins and the other is aborted, see {@link #registerAbort(Runnable)}.</li>
+ * <li>Connect and read failures, {@code 5xx} and {@code 429} are retried with exponential backoff and full
+ * jitter. A {@code Retry-After} is waited for when it is within the maximum backoff; a longer one ends
+ * the retries.</li>
+ * <li>When the failure rate over the last calls reaches the threshold, calls are rejected with
+ * {@link CircuitBreakerOpenException} until the open duration has passed and a single probe succeeded.</li>
+ * </ul>
+ */
+public class ResilientReadExecutor implements AutoCloseable {
+
+	public static final String FIND_BY_ID = "findById";
+	public static final String FIND_ALL = "findAll";
+
+	/**
+	 * @param maxAttempts attempts including the first, {@code 1} disables retries
+	 */
+	public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+	}
+
+	/**
+	 * @param percentile latency percentile after which a hedge is sent, {@code 0} disables hedging
+	 * @param maxDelay   also the delay until enough latencies have been seen
+	 */
+	public record HedgePolicy(double percentile, Duration minDelay, Duration maxDelay) {
+	}
+
+	/**
+	 * @param window      number of recent calls the failure rate is computed over, {@code 0} disables the breaker
+	 * @param failureRate failure rate in {@code (0, 1]} that opens the circuit once the window is full
+	 */
+	public record BreakerPolicy(int window, double failureRate, Duration openDuration) {
+	}
+
+	public enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+	public static class CircuitBreakerOpenException extends RestClientException {
+
+		public CircuitBreakerOpenException(String operation) {
+			super("Circuit breaker for " + operation + " is open");
+		}
+	}
+
+	private static final int LATENCY_WINDOW = 1024;
+	private static final int MIN_LATENCY_SAMPLES = 64;
+	private static final int RECOMPUTE_EVERY = 64;
+
+	// the hedged attempt running on this thread, if any
+	private static final ThreadLocal<Attempt<?>> CURRENT_ATTEMPT = new ThreadLocal<>();
+
+	private final boolean enabled;
+	private final RetryPolicy retry;
+	private final HedgePolicy hedge;
+	private final BreakerPolicy breaker;
+	private final Clock clock;
+	private final ExecutorService hedgeExecutor;
+	private final ConcurrentHashMap<String, Operation> operations = new ConcurrentHashMap<>();
+
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder hedgesSent = new LongAdder();
+	private final LongAdder hedgesWon = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public ResilientReadExecutor(RetryPolicy retry, HedgePolicy hedge, BreakerPolicy breaker, Clock clock) {
+		this(true, retry, hedge, breaker, clock);
+	}
+
+	private ResilientReadExecutor(boolean enabled, RetryPolicy retry, HedgePolicy hedge, BreakerPolicy breaker,
+								  Clock clock) {
+		this.enabled = enabled;
+		this.retry = retry;
+		this.hedge = hedge;
+		this.breaker = breaker;
+		this.clock = clock;
+		this.hedgeExecutor = enabled && hedge.percentile() > 0 ? Executors.newVirtualThreadPerTaskExecutor() : null;
+	}
+
+	public static ResilientReadExecutor disabled() {
+		return new ResilientReadExecutor(false, new RetryPolicy(1, Duration.ZERO, Duration.ZERO),
+			new HedgePolicy(0, Duration.ZERO, Duration.ZERO), new BreakerPolicy(0, 1, Duration.ZERO),
+			Clock.systemUTC());
+	}
+
+	public <T> T execute(String operation, Supplier<T> call) {
+		if (!enabled) {
+			return call.get();
+		}
+
+		Operation state = operations.computeIfAbsent(operation, key -> new Operation());
+		for (int attempt = 1; ; attempt++) {
+			if (!state.tryAcquire()) {
+				rejected.increment();
+				throw new CircuitBreakerOpenException(operation);
+			}
+			T result;
+			try {
+				result = hedgeExecutor == null ? call.get() : hedged(state, call);
+			} catch (RuntimeException e) {
+				if (!isRetryable(e)) {
+					// the server answered, so the call still counts as a success for the breaker
+					state.onSuccess();
+					throw e;
+				}
+				state.onFailure();
+				Duration backoff = backoff(attempt, e);
+				if (attempt >= retry.maxAttempts() || backoff == null) {
+					throw e;
+				}
+				retries.increment();
+				sleep(backoff, e);
+				continue;
+			}
+			state.onSuccess();
+			return result;
+		}
+	}
+
+	/**
+	 * Lets the transport abort a request it is about to send for a hedged attempt, once the other attempt has
+	 * answered. Interrupting the losing thread is not enough: a blocking read on a pooled connection does not
+	 * notice it, so the loser would keep its connection and its concurrency permit until the slow answer
+	 * arrives. Does nothing outside a hedged attempt.
+	 */
+	public static void registerAbort(Runnable abort) {
+		Attempt<?> attempt = CURRENT_ATTEMPT.get();
+		if (attempt != null) {
+			attempt.onAbort(abort);
+		}
+	}
+
+	public CircuitState getCircuitState(String operation) {
+		Operation state = operations.get(operation);
+		return state == null ? CircuitState.CLOSED : state.getState();
+	}
+
+	public Duration getHedgeDelay(String operation) {
+		Operation state = operations.get(operation);
+		return Duration.ofNanos(state == null ? hedge.maxDelay().toNanos() : state.getHedgeDelayNanos());
+	}
+
+	public long getRetryCount() {
+		return retries.sum();
+	}
+
+	public long getHedgeCount() {
+		return hedgesSent.sum();
+	}
+
+	public long getHedgeWinCount() {
+		return hedgesWon.sum();
+	}
+
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	@Override
+	public void close() {
+		if (hedgeExecutor != null) {
+			hedgeExecutor.shutdownNow();
+		}
+	}
+
+	private <T> T hedged(Operation state, Supplier<T> call) {
+		CompletionService<T> completion = new ExecutorCompletionService<>(hedgeExecutor);
+		long start = System.nanoTime();
+		Attempt<T> first = new Attempt<>(call);
+		Future<T> primary = completion.submit(first);
+		Attempt<T> second = null;
+		Future<T> secondary = null;
+		try {
+			Future<T> done = completion.poll(state.getHedgeDelayNanos(), TimeUnit.NANOSECONDS);
+			if (done == null) {
+				hedgesSent.increment();
+				second = new Attempt<>(call);
+				secondary = completion.submit(second);
+				done = completion.take();
+			}
+			if (done == primary) {
+				state.recordLatency(System.nanoTime() - start);
+			}
+			try {
+				T result = done.get();
+				if (done == secondary) {
+					hedgesWon.increment();
+				}
+				return result;
+			} catch (ExecutionException e) {
+				if (secondary == null) {
+					throw unwrap(e);
+				}
+				// one of the two failed, the other one may still succeed
+				Future<T> other = completion.take();
+				try {
+					T result = other.get();
+					if (other == secondary) {
+						hedgesWon.increment();
+					}
+					return result;
+				} catch (ExecutionException ignored) {
+					throw unwrap(e);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a read", e);
+		} finally {
+			stop(primary, first);
+			if (secondary != null) {
+				stop(secondary, second);
+			}
+		}
+	}
+
+	private static void stop(Future<?> future, Attempt<?> attempt) {
+		if (!future.isDone()) {
+			attempt.abort();
+			future.cancel(true);
+		}
+	}
+
+	static boolean isRetryable(RuntimeException e) {
+		return e instanceof ResourceAccessException
+			|| e instanceof HttpServerErrorException
+			|| e instanceof HttpClientErrorException.TooManyRequests;
+	}
+
+	/**
+	 * Backoff before the next attempt, or {@code null} if the server asked for a longer pause than we wait.
+	 */
+	Duration backoff(int attempt, RuntimeException failure) {
+		long cap = Math.min(retry.maxBackoff().toNanos(),
+			retry.initialBackoff().toNanos() << Math.min(attempt - 1, 30));
+		long jittered = cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+
+		Duration retryAfter = failure instanceof HttpStatusCodeException statusFailure
+			? retryAfter(statusFailure.getResponseHeaders())
+			: null;
+		if (retryAfter == null) {
+			return Duration.ofNanos(jittered);
+		}
+		if (retryAfter.compareTo(retry.maxBackoff()) > 0) {
+			return null;
+		}
+		return retryAfter.toNanos() > jittered ? retryAfter : Duration.ofNanos(jittered);
+	}
+
+	private Duration retryAfter(HttpHeaders headers) {
+		String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+		if (value == null) {
+			return null;
+		}
+		try {
+			return Duration.ofSeconds(Math.max(Long.parseLong(value.trim()), 0));
+		} catch (NumberFormatException e) {
+			try {
+				Instant until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+				Duration wait = Duration.between(clock.instant(), until);
+				return wait.isNegative() ? Duration.ZERO : wait;
+			} catch (DateTimeParseException unparsable) {
+				return null;
+			}
+		}
+	}
+
+	private static void sleep(Duration backoff, RuntimeException failure) {
+		try {
+			Thread.sleep(backoff);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw failure;
+		}
+	}
+
+	private static RuntimeException unwrap(ExecutionException e) {
+		if (e.getCause() instanceof RuntimeException cause) {
+			return cause;
+		}
+		if (e.getCause() instanceof Error cause) {
+			throw cause;
+		}
+		return new IllegalStateException(e.getCause());
+	}
+
+	/**
+	 * One of the two concurrent calls of a hedged read, with the aborts of the requests it sent.
+	 */
+	private static final class Attempt<T> implements Callable<T> {
+
+		private final Supplier<T> call;
+		private final List<Runnable> aborts = new ArrayList<>();
+		private boolean aborted;
+
+		Attempt(Supplier<T> call) {
+			this.call = call;
+		}
+
+		@Override
+		public T call() {
+			CURRENT_ATTEMPT.set(this);
+			try {
+				return call.get();
+			} finally {
+				CURRENT_ATTEMPT.remove();
+			}
+		}
+
+		void onAbort(Runnable abort) {
+			synchronized (this) {
+				if (!aborted) {
+					aborts.add(abort);
+					return;
+				}
+			}
+			// the other attempt has already won, do not send this one at all
+			abort.run();
+		}
+
+		void abort() {
+			List<Runnable> pending;
+			synchronized (this) {
+				aborted = true;
+				pending = new ArrayList<>(aborts);
+				aborts.clear();
+			}
+			pending.forEach(Runnable::run);
+		}
+	}
+
+	private final class Operation {
+
+		// latencies of attempts that were not overtaken by a hedge
+		private final long[] latencies = new long[LATENCY_WINDOW];
+		private int latencyNext;
+		private int latencyCount;
+		private int sinceRecompute;
+		private volatile long hedgeDelayNanos = hedge.maxDelay().toNanos();
+
+		// true marks a failure; the window is a ring over the last breaker.window() calls
+		private final boolean[] outcomes = new boolean[Math.max(breaker.window(), 1)];
+		private int outcomeNext;
+		private int outcomeCount;
+		private int failures;
+		private CircuitState state = CircuitState.CLOSED;
+		private Instant openedAt;
+		private boolean probing;
+
+		long getHedgeDelayNanos() {
+			return hedgeDelayNanos;
+		}
+
+		synchronized void recordLatency(long nanos) {
+			latencies[latencyNext] = nanos;
+			latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+			latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+			if (latencyCount >= MIN_LATENCY_SAMPLES && ++sinceRecompute >= RECOMPUTE_EVERY) {
+				sinceRecompute = 0;
+				long[] sorted = Arrays.copyOf(latencies, latencyCount);
+				Arrays.sort(sorted);
+				int index = (int) Math.ceil(hedge.percentile() * sorted.length) - 1;
+				long percentile = sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+				hedgeDelayNanos = Math.max(hedge.minDelay().toNanos(), Math.min(percentile, hedge.maxDelay().toNanos()));
+			}
+		}
+
+		synchronized CircuitState getState() {
+			return state;
+		}
+
+		synchronized boolean tryAcquire() {
+			if (breaker.window() <= 0 || state == CircuitState.CLOSED) {
+				return true;
+			}
+			if (state == CircuitState.OPEN && !clock.instant().isBefore(openedAt.plus(breaker.openDuration()))) {
+				state = CircuitState.HALF_OPEN;
+			}
+			if (state == CircuitState.HALF_OPEN && !probing) {
+				probing = true;
+				return true;
+			}
+			return false;
+		}
+
+		synchronized void onSuccess() {
+			if (breaker.window() <= 0) {
+				return;
+			}
+			if (state != CircuitState.CLOSED) {
+				state = CircuitState.CLOSED;
+				probing = false;
+				outcomeNext = 0;
+				outcomeCount = 0;
+				failures = 0;
+				Arrays.fill(outcomes, false);
+				return;
+			}
+			record(false);
+		}
+
+		synchronized void onFailure() {
+			if (breaker.window() <= 0) {
+				return;
+			}
+			if (state != CircuitState.CLOSED) {
+				open();
+				return;
+			}
+			record(true);
+			if (outcomeCount >= breaker.window() && failures >= breaker.failureRate() * breaker.window()) {
+				open();
+			}
+		}
+
+		private void record(boolean failure) {
+			if (outcomeCount == outcomes.length && outcomes[outcomeNext]) {
+				failures--;
+			}
+			outcomes[outcomeNext] = failure;
+			if (failure) {
+				failures++;
+			}
+			outcomeNext = (outcomeNext + 1) % outcomes.length;
+			outcomeCount = Math.min(outcomeCount + 1, outcomes.length);
+		}
+
+		private void open() {
+			state = CircuitState.OPEN;
+			openedAt = clock.instant();
+			probing = false;
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package guru.springframework.spring6resttemplate.client;
+
+/**
+ * How {@link BeerClient#createBeer} and {@link BeerClient#updateBeer} obtain the stored beer.
+ */
+public enum WriteMode {
+	/**
+	 * Ask for the stored representation with {@code Prefer: return=representation} and use the
+	 * response body; only issue a follow-up GET when the server answers without one.
+	 */
+	REPRESENTATION,
+	/**
+	 * Always read the stored beer back with a separate GET.
+	 */
+	FOLLOW_UP_GET
+}
@@ -0,0 +1,173 @@
+package guru.springframework.spring6resttemplate.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the current access token so the request path is a single volatile read.
+ * <p>
+ * A refresh is started in the background {@code refreshBefore} ahead of {@code expiresAt}, but
+ * no earlier than half way through the time the token had left when it arrived: a token that
+ * lives no longer than {@code refreshBefore} would otherwise be due as soon as it is fetched,
+ * and every call would go to the token endpoint. Concurrent callers that need a token while a
+ * refresh is running all wait on the same token endpoint call instead of issuing their own, and
+ * at most one background refresh is queued at a time.
+ * <p>
+ * Every token endpoint call is observed as {@value #TOKEN_FETCH_OBSERVATION}, tagged with
+ * whether a request thread was blocked on it or it ran in the background.
+ */
+class AccessTokenHolder implements AutoCloseable {
+
+	static final String TOKEN_FETCH_OBSERVATION = "beer.client.token.fetch";
+
+	private static final Logger log = LoggerFactory.getLogger(AccessTokenHolder.class);
+
+	private final Supplier<OAuth2AccessToken> tokenSource;
+	private final Duration refreshBefore;
+	private final ObservationRegistry observationRegistry;
+	private final AtomicReference<CachedToken> current = new AtomicReference<>();
+	private final AtomicReference<CompletableFuture<OAuth2AccessToken>> inFlight = new AtomicReference<>();
+	private final AtomicBoolean backgroundRefreshQueued = new AtomicBoolean();
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "oauth-token-refresh");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	AccessTokenHolder(Supplier<OAuth2AccessToken> tokenSource, Duration refreshBefore,
+					  ObservationRegistry observationRegistry) {
+		this.tokenSource = tokenSource;
+		this.refreshBefore = refreshBefore;
+		this.observationRegistry = observationRegistry;
+	}
+
+	OAuth2AccessToken getToken() {
+		CachedToken cached = current.get();
+		if (cached == null || isExpired(cached.token())) {
+			return await(refresh("blocking"));
+		}
+		if (isDueForRefresh(cached)) {
+			refreshInBackground();
+		}
+		return cached.token();
+	}
+
+	/**
+	 * Drops {@code rejected} if it is still the current token, so the next
+	 * {@link #getToken()} goes to the token endpoint.
+	 */
+	void invalidate(OAuth2AccessToken rejected) {
+		current.updateAndGet(cached -> cached != null && cached.token() == rejected ? null : cached);
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+
+	private CompletableFuture<OAuth2AccessToken> refresh(String mode) {
+		while (true) {
+			CompletableFuture<OAuth2AccessToken> running = inFlight.get();
+			if (running != null) {
+				return running;
+			}
+			CompletableFuture<OAuth2AccessToken> mine = new CompletableFuture<>();
+			if (inFlight.compareAndSet(null, mine)) {
+				try {
+					OAuth2AccessToken token = Observation.createNotStarted(TOKEN_FETCH_OBSERVATION, observationRegistry)
+						.lowCardinalityKeyValue("mode", mode)
+						.observe(tokenSource);
+					CachedToken cached = new CachedToken(token, refreshAt(token));
+					current.set(cached);
+					scheduleRefresh(cached);
+					mine.complete(token);
+				} catch (RuntimeException e) {
+					mine.completeExceptionally(e);
+				} finally {
+					inFlight.compareAndSet(mine, null);
+				}
+				return mine;
+			}
+		}
+	}
+
+	private void refreshInBackground() {
+		if (inFlight.get() != null || scheduler.isShutdown() || !backgroundRefreshQueued.compareAndSet(false, true)) {
+			return;
+		}
+		scheduler.execute(() -> {
+			try {
+				refreshQuietly();
+			} finally {
+				backgroundRefreshQueued.set(false);
+			}
+		});
+	}
+
+	private void scheduleRefresh(CachedToken cached) {
+		if (cached.refreshAt() == null || scheduler.isShutdown()) {
+			return;
+		}
+		Duration delay = Duration.between(Instant.now(), cached.refreshAt());
+		// tokens without a meaningful lifetime (e.g. Instant.MAX) are never refreshed proactively
+		if (!delay.isNegative() && delay.compareTo(Duration.ofDays(365)) < 0) {
+			scheduler.schedule(this::refreshQuietly, delay.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void refreshQuietly() {
+		CachedToken cached = current.get();
+		if (cached != null && !isDueForRefresh(cached)) {
+			return;
+		}
+		refresh("background").exceptionally(e -> {
+			log.warn("Background access token refresh failed", e);
+			return null;
+		});
+	}
+
+	private boolean isExpired(OAuth2AccessToken token) {
+		return token.getExpiresAt() != null && !Instant.now().isBefore(token.getExpiresAt());
+	}
+
+	private boolean isDueForRefresh(CachedToken cached) {
+		return cached.refreshAt() != null && !Instant.now().isBefore(cached.refreshAt());
+	}
+
+	private Instant refreshAt(OAuth2AccessToken token) {
+		if (token.getExpiresAt() == null) {
+			return null;
+		}
+		Duration halfLeft = Duration.between(Instant.now(), token.getExpiresAt()).dividedBy(2);
+		Duration ahead = halfLeft.compareTo(refreshBefore) < 0 ? halfLeft : refreshBefore;
+		return token.getExpiresAt().minus(ahead.isNegative() ? Duration.ZERO : ahead);
+	}
+
+	private record CachedToken(OAuth2AccessToken token, Instant refreshAt) {
+	}
+
+	private static OAuth2AccessToken await(CompletableFuture<OAuth2AccessToken> refresh) {
+		try {
+			return refresh.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,230 @@
+package guru.springframework.spring6resttemplate.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.BATCH_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+
+/**
+ * Caps the requests in flight per {@code BeerClientImpl} URI template and adapts the cap with AIMD: a
+ * request that fails with an I/O error, {@code 429} or {@code 503}, or whose time to the response headers
+ * exceeds {@code rttTolerance} times the lowest recently seen, cuts the limit by {@code backoffRatio}. Any
+ * other answer raises it by one per limit's worth of answers while at least half of the limit is in use.
+ * <p>
+ * A request counts as in flight until its response is closed. Over the limit, a request waits up to
+ * {@code maxWait} for a slot ({@link Duration#ZERO} fails fast) and is then rejected with
+ * {@link LimitExceededException}, which is not retried. Registered inside {@link OAuthClientInterceptor}
+ * and outside {@link BeerClientMetricsInterceptor}, so neither token fetches nor waiting count as round trips.
+ * The repeat after a {@code 401} is a request of its own (see {@link TokenRefreshingRestTemplate}) and takes
+ * its own permit.
+ */
+public class AdaptiveConcurrencyLimiter implements ClientHttpRequestInterceptor {
+
+	public static class LimitExceededException extends RestClientException {
+
+		public LimitExceededException(String uriTemplate, int limit) {
+			super("Concurrency limit of " + limit + " reached for " + uriTemplate);
+		}
+	}
+
+	// after this many samples the lowest RTT of the last window replaces the reference RTT
+	private static final int RTT_WINDOW = 500;
+
+	private final int initialLimit;
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final double rttTolerance;
+	private final Duration maxWait;
+	private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+									  double rttTolerance, Duration maxWait) {
+		this.initialLimit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+		this.rttTolerance = rttTolerance;
+		this.maxWait = maxWait;
+		limits.put(GET_BEER_PATH, new Limit());
+		limits.put(GET_BEER_PATH_VAR, new Limit());
+		limits.put(BATCH_BEER_PATH, new Limit());
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		String uriTemplate = BeerClientMetricsInterceptor.uriTemplate(request);
+		Limit limit = limits.get(uriTemplate);
+		if (limit == null) {
+			return execution.execute(request, body);
+		}
+
+		limit.acquire(uriTemplate);
+		long start = System.nanoTime();
+		ClientHttpResponse response;
+		HttpStatusCode status;
+		try {
+			response = execution.execute(request, body);
+			status = response.getStatusCode();
+		} catch (IOException | RuntimeException e) {
+			limit.release(System.nanoTime() - start, true);
+			throw e;
+		}
+		boolean overloaded = status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+			|| status.isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE);
+		return new LimitedResponse(response, limit, System.nanoTime() - start, overloaded);
+	}
+
+	public int getLimit(String uriTemplate) {
+		return limits.get(uriTemplate).current();
+	}
+
+	public int getInFlight(String uriTemplate) {
+		return limits.get(uriTemplate).inFlight();
+	}
+
+	public long getRejectedCount(String uriTemplate) {
+		return limits.get(uriTemplate).rejected.sum();
+	}
+
+	private final class Limit {
+
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition released = lock.newCondition();
+		private final LongAdder rejected = new LongAdder();
+		private double limit = initialLimit;
+		private int inFlight;
+		private long referenceRtt = Long.MAX_VALUE;
+		private long windowMinRtt = Long.MAX_VALUE;
+		private int windowSamples;
+
+		void acquire(String uriTemplate) {
+			lock.lock();
+			try {
+				long remaining = maxWait.toNanos();
+				while (inFlight >= (int) limit) {
+					if (remaining <= 0) {
+						rejected.increment();
+						throw new LimitExceededException(uriTemplate, (int) limit);
+					}
+					remaining = released.awaitNanos(remaining);
+				}
+				inFlight++;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				rejected.increment();
+				throw new LimitExceededException(uriTemplate, (int) limit);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		void release(long rttNanos, boolean dropped) {
+			lock.lock();
+			try {
+				int used = inFlight--;
+				if (!dropped) {
+					windowMinRtt = Math.min(windowMinRtt, rttNanos);
+					referenceRtt = Math.min(referenceRtt, rttNanos);
+					if (++windowSamples >= RTT_WINDOW) {
+						// lets the reference follow a server that became slower for good
+						referenceRtt = windowMinRtt;
+						windowMinRtt = Long.MAX_VALUE;
+						windowSamples = 0;
+					}
+				}
+				if (dropped || rttNanos > rttTolerance * referenceRtt) {
+					limit = Math.max(minLimit, limit * backoffRatio);
+				} else if (used * 2 >= limit) {
+					limit = Math.min(maxLimit, limit + 1 / limit);
+				}
+				released.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		int current() {
+			lock.lock();
+			try {
+				return (int) limit;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		int inFlight() {
+			lock.lock();
+			try {
+				return inFlight;
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private static class LimitedResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse delegate;
+		private final Limit limit;
+		private final long rttNanos;
+		private final boolean overloaded;
+		private boolean closed;
+
+		LimitedResponse(ClientHttpResponse delegate, Limit limit, long rttNanos, boolean overloaded) {
+			this.delegate = delegate;
+			this.limit = limit;
+			this.rttNanos = rttNanos;
+			this.overloaded = overloaded;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return delegate.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			return delegate.getBody();
+		}
+
+		@Override
+		public void close() {
+			try {
+				delegate.close();
+			} finally {
+				if (!closed) {
+					closed = true;
+					limit.release(rttNanos, overloaded);
+				}
+			}
+		}
+	}
+}
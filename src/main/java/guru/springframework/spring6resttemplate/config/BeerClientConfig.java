@@ -0,0 +1,72 @@
+package guru.springframework.spring6resttemplate.config;
+
+import guru.springframework.spring6resttemplate.client.BeerCatalogReplica;
+import guru.springframework.spring6resttemplate.client.BeerClient;
+import guru.springframework.spring6resttemplate.client.BeerDTOCache;
+import guru.springframework.spring6resttemplate.client.RequestCoalescer;
+import guru.springframework.spring6resttemplate.client.ResilientReadExecutor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class BeerClientConfig {
+
+	@Bean
+	public BeerDTOCache beerDTOCache(
+			@Value("${rest.template.cache.enabled:false}") boolean enabled,
+			@Value("${rest.template.cache.max-size:10000}") int maxSize,
+			@Value("${rest.template.cache.ttl:30s}") Duration ttl) {
+		return new BeerDTOCache(enabled ? maxSize : 0, ttl, Clock.systemUTC());
+	}
+
+	@Bean
+	public RequestCoalescer requestCoalescer(@Value("${rest.template.coalescing.enabled:true}") boolean enabled) {
+		return new RequestCoalescer(enabled);
+	}
+
+	/**
+	 * The replica syncs through the {@link BeerClient} that queries it, which is looked up lazily.
+	 */
+	@Bean
+	public BeerCatalogReplica beerCatalogReplica(
+			ObjectProvider<BeerClient> beerClient,
+			@Value("${rest.template.replica.enabled:false}") boolean enabled,
+			@Value("${rest.template.replica.page-size:1000}") int pageSize,
+			@Value("${rest.template.replica.sync-interval:15s}") Duration syncInterval,
+			@Value("${rest.template.replica.full-sync-interval:1h}") Duration fullSyncInterval,
+			@Value("${rest.template.replica.max-staleness:60s}") Duration maxStaleness) {
+		return enabled
+			? new BeerCatalogReplica(beerClient::getObject, pageSize, syncInterval, fullSyncInterval, maxStaleness,
+				Clock.systemUTC())
+			: BeerCatalogReplica.disabled();
+	}
+
+	/**
+	 * Wraps only the idempotent reads of {@code BeerClientImpl}; writes are neither retried nor hedged.
+	 */
+	@Bean
+	public ResilientReadExecutor resilientReadExecutor(
+			@Value("${rest.template.resilience.enabled:false}") boolean enabled,
+			@Value("${rest.template.resilience.retry.max-attempts:3}") int maxAttempts,
+			@Value("${rest.template.resilience.retry.initial-backoff:50ms}") Duration initialBackoff,
+			@Value("${rest.template.resilience.retry.max-backoff:2s}") Duration maxBackoff,
+			@Value("${rest.template.resilience.hedge.percentile:0.95}") double hedgePercentile,
+			@Value("${rest.template.resilience.hedge.min-delay:20ms}") Duration hedgeMinDelay,
+			@Value("${rest.template.resilience.hedge.max-delay:1s}") Duration hedgeMaxDelay,
+			@Value("${rest.template.resilience.breaker.window:50}") int breakerWindow,
+			@Value("${rest.template.resilience.breaker.failure-rate:0.5}") double breakerFailureRate,
+			@Value("${rest.template.resilience.breaker.open-duration:30s}") Duration breakerOpenDuration) {
+		return enabled
+			? new ResilientReadExecutor(
+				new ResilientReadExecutor.RetryPolicy(maxAttempts, initialBackoff, maxBackoff),
+				new ResilientReadExecutor.HedgePolicy(hedgePercentile, hedgeMinDelay, hedgeMaxDelay),
+				new ResilientReadExecutor.BreakerPolicy(breakerWindow, breakerFailureRate, breakerOpenDuration),
+				Clock.systemUTC())
+			: ResilientReadExecutor.disabled();
+	}
+}
@@ -0,0 +1,139 @@
+package guru.springframework.spring6resttemplate.config;
+
+import guru.springframework.spring6resttemplate.client.BeerDTOCache;
+import guru.springframework.spring6resttemplate.client.RequestCoalescer;
+import guru.springframework.spring6resttemplate.client.ResilientReadExecutor;
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.ClientRequestObservationConvention;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.BATCH_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+
+@Configuration
+public class BeerClientMetricsConfig {
+
+	/**
+	 * {@code BeerClientImpl} passes ready-built URIs, which carry no template, so {@code http.client.requests}
+	 * would tag every beer API call {@code uri=none}. Those requests get the template their path matches, as
+	 * in {@code beer.client.requests}. Other requests keep their template without an expanded query string, so
+	 * filter combinations do not become series of their own.
+	 */
+	@Bean
+	public ClientRequestObservationConvention beerClientRequestObservationConvention() {
+		return new DefaultClientRequestObservationConvention() {
+			@Override
+			protected KeyValue uri(ClientRequestObservationContext context) {
+				KeyValue uri = super.uri(context);
+				if (context.getCarrier() != null) {
+					String template = BeerClientMetricsInterceptor.uriTemplate(context.getCarrier());
+					if (!template.equals(BeerClientMetricsInterceptor.UNKNOWN_URI)) {
+						return KeyValue.of(uri.getKey(), template);
+					}
+				}
+				int query = uri.getValue().indexOf('?');
+				return query < 0 ? uri : KeyValue.of(uri.getKey(), uri.getValue().substring(0, query));
+			}
+		};
+	}
+
+	@Bean
+	public MeterBinder beerClientPoolMetrics(ObjectProvider<PoolingHttpClientConnectionManager> pooledTransport) {
+		return registry -> pooledTransport.ifAvailable(connectionManager -> {
+			Gauge.builder("beer.client.pool.connections", connectionManager, pool -> pool.getTotalStats().getLeased())
+				.tag("state", "leased")
+				.register(registry);
+			Gauge.builder("beer.client.pool.connections", connectionManager, pool -> pool.getTotalStats().getAvailable())
+				.tag("state", "available")
+				.register(registry);
+			Gauge.builder("beer.client.pool.pending", connectionManager, pool -> pool.getTotalStats().getPending())
+				.description("Requests waiting to lease a connection")
+				.register(registry);
+			Gauge.builder("beer.client.pool.max", connectionManager, pool -> pool.getTotalStats().getMax())
+				.register(registry);
+		});
+	}
+
+	@Bean
+	public MeterBinder beerClientCacheMetrics(BeerDTOCache beerDTOCache) {
+		return registry -> {
+			FunctionCounter.builder("beer.client.cache.requests", beerDTOCache, BeerDTOCache::getHitCount)
+				.tag("result", "hit")
+				.register(registry);
+			FunctionCounter.builder("beer.client.cache.requests", beerDTOCache, BeerDTOCache::getMissCount)
+				.tag("result", "miss")
+				.register(registry);
+			FunctionCounter.builder("beer.client.cache.requests", beerDTOCache, BeerDTOCache::getRevalidationCount)
+				.tag("result", "revalidated")
+				.register(registry);
+			Gauge.builder("beer.client.cache.size", beerDTOCache, BeerDTOCache::size)
+				.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder beerClientCoalescerMetrics(RequestCoalescer requestCoalescer) {
+		return registry -> {
+			FunctionCounter.builder("beer.client.coalesced.requests", requestCoalescer, RequestCoalescer::getCoalescedCount)
+				.description("Reads that waited for an identical in-flight request instead of sending their own")
+				.register(registry);
+			Gauge.builder("beer.client.in.flight.reads", requestCoalescer, RequestCoalescer::getInFlightCount)
+				.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder beerClientResilienceMetrics(ResilientReadExecutor reads) {
+		return registry -> {
+			FunctionCounter.builder("beer.client.read.retries", reads, ResilientReadExecutor::getRetryCount)
+				.register(registry);
+			FunctionCounter.builder("beer.client.read.hedges", reads, ResilientReadExecutor::getHedgeCount)
+				.tag("result", "sent")
+				.register(registry);
+			FunctionCounter.builder("beer.client.read.hedges", reads, ResilientReadExecutor::getHedgeWinCount)
+				.tag("result", "won")
+				.register(registry);
+			FunctionCounter.builder("beer.client.read.rejected", reads, ResilientReadExecutor::getRejectedCount)
+				.description("Reads rejected by an open circuit breaker")
+				.register(registry);
+			for (String operation : new String[] {ResilientReadExecutor.FIND_BY_ID, ResilientReadExecutor.FIND_ALL}) {
+				Gauge.builder("beer.client.read.circuit.open", reads,
+						executor -> executor.getCircuitState(operation) == ResilientReadExecutor.CircuitState.CLOSED ? 0 : 1)
+					.tag("operation", operation)
+					.register(registry);
+				Gauge.builder("beer.client.read.hedge.delay", reads,
+						executor -> executor.getHedgeDelay(operation).toNanos() / 1_000_000.0)
+					.tag("operation", operation)
+					.baseUnit("milliseconds")
+					.register(registry);
+			}
+		};
+	}
+
+	@Bean
+	public MeterBinder beerClientLimiterMetrics(AdaptiveConcurrencyLimiter limiter) {
+		return registry -> {
+			for (String uri : new String[] {GET_BEER_PATH, GET_BEER_PATH_VAR, BATCH_BEER_PATH}) {
+				Gauge.builder("beer.client.limiter.limit", limiter, l -> l.getLimit(uri))
+					.tag("uri", uri)
+					.register(registry);
+				Gauge.builder("beer.client.limiter.in.flight", limiter, l -> l.getInFlight(uri))
+					.tag("uri", uri)
+					.register(registry);
+				FunctionCounter.builder("beer.client.limiter.rejected", limiter, l -> l.getRejectedCount(uri))
+					.description("Requests rejected after waiting for a slot under the concurrency limit")
+					.tag("uri", uri)
+					.register(registry);
+			}
+		};
+	}
+}
@@ -0,0 +1,254 @@
+package guru.springframework.spring6resttemplate.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.BATCH_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+
+/**
+ * Records every beer API exchange, split into the time until the response headers arrive
+ * ({@value #REQUESTS_METRIC}) and the time spent reading and binding the body
+ * ({@value #RESPONSE_READ_METRIC}), plus the body size ({@value #RESPONSE_SIZE_METRIC}). The time from process
+ * start to the first successful exchange is kept as {@value #FIRST_CALL_METRIC}, to compare JVM and native startup.
+ * <p>
+ * Requests are tagged with the {@code BeerClient} operation and the URI template they were
+ * built from, never the expanded URI, so ids and query strings cannot blow up the number of series.
+ * Registered inside {@link OAuthClientInterceptor}, so token acquisition is not counted as network time.
+ * Meters are registered once per template, method and status and looked up from then on.
+ */
+public class BeerClientMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+	public static final String REQUESTS_METRIC = "beer.client.requests";
+	public static final String RESPONSE_READ_METRIC = "beer.client.response.read";
+	public static final String RESPONSE_SIZE_METRIC = "beer.client.response.size";
+	public static final String FIRST_CALL_METRIC = "beer.client.first-call";
+
+	private static final Logger log = LoggerFactory.getLogger(BeerClientMetricsInterceptor.class);
+
+	static final String UNKNOWN_URI = "UNKNOWN";
+
+	// the IO_ERROR series of an operation, next to its status codes
+	private static final int IO_ERROR = -1;
+
+	private final MeterRegistry meterRegistry;
+	private final AtomicBoolean firstCallRecorded = new AtomicBoolean();
+	private final Map<String, OperationMeters> operations = new ConcurrentHashMap<>();
+
+	public BeerClientMetricsInterceptor(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		OperationMeters meters = meters(request);
+		long start = System.nanoTime();
+		ClientHttpResponse response;
+		try {
+			response = execution.execute(request, body);
+		} catch (IOException | RuntimeException e) {
+			meters.requests(IO_ERROR).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			throw e;
+		}
+		HttpStatusCode status = response.getStatusCode();
+		meters.requests(status.value()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		if (status.is2xxSuccessful() && !firstCallRecorded.get() && firstCallRecorded.compareAndSet(false, true)) {
+			recordFirstCall();
+		}
+		return new MeteredResponse(response, meters);
+	}
+
+	private OperationMeters meters(HttpRequest request) {
+		String method = request.getMethod().name();
+		String key = method + " " + uriTemplate(request);
+		OperationMeters meters = operations.get(key);
+		if (meters == null) {
+			meters = operations.computeIfAbsent(key, ignored -> new OperationMeters(operationTags(request), method));
+		}
+		return meters;
+	}
+
+	/**
+	 * Maps a request onto the {@code BeerClient} operation that issued it.
+	 */
+	static Tags operationTags(HttpRequest request) {
+		HttpMethod method = request.getMethod();
+		String uri = uriTemplate(request);
+		String operation;
+		if (uri.equals(GET_BEER_PATH)) {
+			operation = method == HttpMethod.GET ? "findAll" : method == HttpMethod.POST ? "create" : "other";
+		} else if (uri.equals(BATCH_BEER_PATH)) {
+			operation = method == HttpMethod.POST ? "createBatch" : "other";
+		} else if (uri.equals(GET_BEER_PATH_VAR)) {
+			operation = method == HttpMethod.GET ? "findById"
+				: method == HttpMethod.PUT ? "update"
+				: method == HttpMethod.PATCH ? "patch"
+				: method == HttpMethod.DELETE ? "delete"
+				: "other";
+		} else {
+			operation = "other";
+		}
+		return Tags.of("operation", operation, "uri", uri);
+	}
+
+	/**
+	 * The {@code BeerClientImpl} URI template a request was expanded from, or {@code UNKNOWN}.
+	 */
+	static String uriTemplate(HttpRequest request) {
+		String path = request.getURI().getPath();
+		if (path.endsWith(GET_BEER_PATH)) {
+			return GET_BEER_PATH;
+		}
+		// before the {beerId} template, which would match it as well
+		if (path.endsWith(BATCH_BEER_PATH)) {
+			return BATCH_BEER_PATH;
+		}
+		if (path.substring(0, Math.max(path.lastIndexOf('/'), 0)).endsWith(GET_BEER_PATH)) {
+			return GET_BEER_PATH_VAR;
+		}
+		return UNKNOWN_URI;
+	}
+
+	private void recordFirstCall() {
+		ProcessHandle.current().info().startInstant().ifPresent(started -> {
+			Duration sinceStart = Duration.between(started, Instant.now());
+			TimeGauge.builder(FIRST_CALL_METRIC, sinceStart::toNanos, TimeUnit.NANOSECONDS)
+				.description("Time from process start to the first successful beer API exchange")
+				.register(meterRegistry);
+			log.info("First successful beer API call {} ms after process start", sinceStart.toMillis());
+		});
+	}
+
+	private static String outcome(HttpStatusCode status) {
+		if (status.is2xxSuccessful()) {
+			return "SUCCESS";
+		}
+		if (status.is3xxRedirection()) {
+			return "REDIRECTION";
+		}
+		if (status.is4xxClientError()) {
+			return "CLIENT_ERROR";
+		}
+		return status.is5xxServerError() ? "SERVER_ERROR" : "UNKNOWN";
+	}
+
+	/**
+	 * The meters of one method on one URI template.
+	 */
+	private final class OperationMeters {
+
+		private final Tags tags;
+		private final String method;
+		private final Map<Integer, Timer> requests = new ConcurrentHashMap<>();
+		// registered with the first response, so failed exchanges alone do not create empty series
+		private volatile Timer responseRead;
+		private volatile DistributionSummary responseSize;
+
+		OperationMeters(Tags tags, String method) {
+			this.tags = tags;
+			this.method = method;
+		}
+
+		Timer requests(int status) {
+			Timer timer = requests.get(status);
+			if (timer == null) {
+				timer = requests.computeIfAbsent(status, ignored -> Timer.builder(REQUESTS_METRIC)
+					.description("Beer API exchanges up to the response headers")
+					.tags(tags)
+					.tags("method", method)
+					.tags(status == IO_ERROR
+						? Tags.of("status", "IO_ERROR", "outcome", "UNKNOWN")
+						: Tags.of("status", String.valueOf(status), "outcome", outcome(HttpStatusCode.valueOf(status))))
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+			}
+			return timer;
+		}
+
+		void recordResponse(long readNanos, long bytes) {
+			// assigned last, so once it is set both are; registering twice returns the same meters
+			if (responseSize == null) {
+				responseRead = Timer.builder(RESPONSE_READ_METRIC)
+					.description("Time from the response headers until the body was read, bound and closed")
+					.tags(tags)
+					.publishPercentileHistogram()
+					.register(meterRegistry);
+				responseSize = DistributionSummary.builder(RESPONSE_SIZE_METRIC)
+					.description("Response body bytes read")
+					.baseUnit("bytes")
+					.tags(tags)
+					.register(meterRegistry);
+			}
+			responseRead.record(readNanos, TimeUnit.NANOSECONDS);
+			responseSize.record(bytes);
+		}
+	}
+
+	private class MeteredResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse delegate;
+		private final OperationMeters meters;
+		private final long headersReceived = System.nanoTime();
+		private CountingInputStream body;
+		private boolean closed;
+
+		MeteredResponse(ClientHttpResponse delegate, OperationMeters meters) {
+			this.delegate = delegate;
+			this.meters = meters;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return delegate.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (body == null) {
+				body = new CountingInputStream(delegate.getBody());
+			}
+			return body;
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				meters.recordResponse(System.nanoTime() - headersReceived, body == null ? 0 : body.getCount());
+			}
+			delegate.close();
+		}
+	}
+}
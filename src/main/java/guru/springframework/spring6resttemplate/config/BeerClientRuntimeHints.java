@@ -0,0 +1,41 @@
+package guru.springframework.spring6resttemplate.config;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
+import guru.springframework.spring6resttemplate.page.RestResponsePage;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection hints for the types Jackson binds at runtime, so they can be read and written in a GraalVM native
+ * image: the {@code @JsonCreator} constructor of {@link RestResponsePage}, {@link BeerDTO} with its Lombok
+ * builder, and {@link BeerStyle}. Also the constructor of {@link TokenRefreshingRestTemplate}, which
+ * {@code RestTemplateBuilder} calls reflectively.
+ */
+public class BeerClientRuntimeHints implements RuntimeHintsRegistrar {
+
+	private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+	@Override
+	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+		bindingHints.registerReflectionHints(hints.reflection(),
+			BeerDTO.class, BeerStyle.class, RestResponsePage.class, PageMetadata.class);
+
+		hints.reflection()
+			.registerType(RestResponsePage.class,
+				MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS)
+			.registerType(BeerDTO.BeerDTOBuilder.class,
+				MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS)
+			.registerType(BeerStyle.class,
+				MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS)
+			.registerType(TokenRefreshingRestTemplate.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+			// package-private record the exporter writes its checkpoints as
+			.registerType(TypeReference.of("guru.springframework.spring6resttemplate.exporter.ExportCheckpoint"),
+				MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+				MemberCategory.DECLARED_FIELDS);
+	}
+}
@@ -0,0 +1,110 @@
+package guru.springframework.spring6resttemplate.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import guru.springframework.spring6resttemplate.client.BeerClientImpl;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.page.RestResponsePage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pays the costs of the first calls once the application is ready instead of on the first request: fetches
+ * the access token, opens up to {@code connections} pooled connections with concurrent one-beer page requests,
+ * and has every Jackson converter of the {@link RestTemplate} build its serializers and deserializers for
+ * {@link BeerDTO} and {@link RestResponsePage} pages. A failed warm-up is logged and startup carries on.
+ */
+public class BeerClientWarmup implements ApplicationListener<ApplicationReadyEvent> {
+
+	private static final Logger log = LoggerFactory.getLogger(BeerClientWarmup.class);
+
+	private final RestTemplate restTemplate;
+	private final OAuthClientInterceptor oAuthClientInterceptor;
+	private final int connections;
+
+	public BeerClientWarmup(RestTemplate restTemplate, OAuthClientInterceptor oAuthClientInterceptor, int connections) {
+		this.restTemplate = restTemplate;
+		this.oAuthClientInterceptor = oAuthClientInterceptor;
+		this.connections = connections;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		warmUp();
+	}
+
+	/**
+	 * @return whether the token and all connection requests succeeded
+	 */
+	public boolean warmUp() {
+		long start = System.nanoTime();
+		primeJackson(restTemplate);
+		try {
+			oAuthClientInterceptor.prefetchToken();
+			openConnections();
+		} catch (RuntimeException e) {
+			log.warn("Beer client warm-up failed, the first calls pay for it: {}", e.toString());
+			return false;
+		}
+		log.info("Beer client warmed up in {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+		return true;
+	}
+
+	/**
+	 * Jackson builds and caches (de)serializers per mapper on first use; readers and writers for a type fetch
+	 * them eagerly, into the same caches the converters use.
+	 */
+	static void primeJackson(RestTemplate restTemplate) {
+		for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+			if (converter instanceof AbstractJackson2HttpMessageConverter jackson) {
+				ObjectMapper mapper = jackson.getObjectMapper();
+				TypeFactory types = mapper.getTypeFactory();
+				JavaType page = types.constructParametricType(RestResponsePage.class, BeerDTO.class);
+				JavaType list = types.constructCollectionType(List.class, BeerDTO.class);
+				mapper.readerFor(BeerDTO.class);
+				mapper.readerFor(page);
+				mapper.readerFor(list);
+				mapper.writerFor(BeerDTO.class);
+				mapper.writerFor(list);
+			}
+		}
+	}
+
+	private void openConnections() {
+		String uri = BeerClientImpl.beerListUri(Map.of(BeerClientImpl.PAGE_SIZE_PARAM, 1));
+		// concurrent requests each need a connection of their own, which the pool keeps afterwards
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> requests = new ArrayList<>(connections);
+			for (int i = 0; i < connections; i++) {
+				requests.add(executor.submit(() -> restTemplate.exchange(uri, HttpMethod.GET, null, Void.class)));
+			}
+			for (Future<?> request : requests) {
+				request.get();
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException("Warm-up request failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted during warm-up", e);
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package guru.springframework.spring6resttemplate.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Asks for gzip or deflate encoded responses and decodes them while the body is read, so a page is
+ * never held compressed and decompressed at the same time. Request bodies of at least
+ * {@code requestThreshold} bytes are sent gzip encoded when that makes them smaller; a negative
+ * threshold turns request compression off.
+ * <p>
+ * Bytes on the wire are recorded as {@value #COMPRESSED_SIZE_METRIC} and the decoded size divided by
+ * them as {@value #RATIO_METRIC}, tagged like {@link BeerClientMetricsInterceptor} plus {@code direction}.
+ * Registered after the metrics interceptor, which therefore sees decoded bodies.
+ */
+public class CompressionInterceptor implements ClientHttpRequestInterceptor {
+
+	public static final String ACCEPT_ENCODING = "gzip, deflate";
+	public static final String RATIO_METRIC = "beer.client.compression.ratio";
+	public static final String COMPRESSED_SIZE_METRIC = "beer.client.compression.size";
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final MeterRegistry meterRegistry;
+	private final int requestThreshold;
+
+	public CompressionInterceptor(MeterRegistry meterRegistry, int requestThreshold) {
+		this.meterRegistry = meterRegistry;
+		this.requestThreshold = requestThreshold;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		HttpHeaders headers = request.getHeaders();
+		if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+			headers.set(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+		}
+		Tags tags = BeerClientMetricsInterceptor.operationTags(request);
+
+		byte[] sent = body;
+		if (requestThreshold >= 0 && body.length >= requestThreshold && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			byte[] compressed = gzip(body);
+			if (compressed.length < body.length) {
+				headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+				headers.setContentLength(compressed.length);
+				record(tags.and("direction", "request", "encoding", "gzip"), compressed.length, body.length);
+				sent = compressed;
+			}
+		}
+
+		ClientHttpResponse response = execution.execute(request, sent);
+		String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+		if (encoding == null) {
+			return response;
+		}
+		return switch (encoding.trim().toLowerCase()) {
+			case "gzip", "x-gzip" -> new DecodingResponse(response, "gzip", tags);
+			case "deflate" -> new DecodingResponse(response, "deflate", tags);
+			default -> response;
+		};
+	}
+
+	private void record(Tags tags, long compressed, long decoded) {
+		DistributionSummary.builder(COMPRESSED_SIZE_METRIC)
+			.description("Encoded body bytes on the wire")
+			.baseUnit("bytes")
+			.tags(tags)
+			.register(meterRegistry)
+			.record(compressed);
+		if (compressed > 0) {
+			DistributionSummary.builder(RATIO_METRIC)
+				.description("Decoded body size divided by the encoded size")
+				.tags(tags)
+				.register(meterRegistry)
+				.record((double) decoded / compressed);
+		}
+	}
+
+	private static byte[] gzip(byte[] body) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(body.length / 4, 64));
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE)) {
+			gzip.write(body);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Both zlib wrapped and, as some servers send it, raw deflate data are accepted for {@code deflate}.
+	 */
+	private static InputStream inflate(PushbackInputStream in) throws IOException {
+		byte[] header = new byte[2];
+		int n = in.readNBytes(header, 0, 2);
+		in.unread(header, 0, n);
+		boolean zlib = n == 2 && (header[0] & 0x0F) == 8 && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+		return new InflaterInputStream(in, new Inflater(!zlib), BUFFER_SIZE);
+	}
+
+	private class DecodingResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse delegate;
+		private final String encoding;
+		private final Tags tags;
+		private final HttpHeaders headers = new HttpHeaders();
+		private CountingInputStream wire;
+		private CountingInputStream body;
+		private boolean closed;
+
+		DecodingResponse(ClientHttpResponse delegate, String encoding, Tags tags) {
+			this.delegate = delegate;
+			this.encoding = encoding;
+			this.tags = tags;
+			// the body handed out is no longer encoded, nor of the announced length
+			headers.putAll(delegate.getHeaders());
+			headers.remove(HttpHeaders.CONTENT_ENCODING);
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return delegate.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (body == null) {
+				wire = new CountingInputStream(delegate.getBody());
+				PushbackInputStream in = new PushbackInputStream(wire, 2);
+				int first = in.read();
+				if (first == -1) {
+					// error and no-content responses may announce an encoding without a body
+					body = new CountingInputStream(InputStream.nullInputStream());
+				} else {
+					in.unread(first);
+					body = new CountingInputStream(encoding.equals("gzip")
+						? new GZIPInputStream(in, BUFFER_SIZE)
+						: inflate(in));
+				}
+			}
+			return body;
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				if (wire != null && wire.getCount() > 0) {
+					record(tags.and("direction", "response", "encoding", encoding), wire.getCount(), body.getCount());
+				}
+			}
+			delegate.close();
+		}
+	}
+}
@@ -1,8 +1,13 @@
 package guru.springframework.spring6resttemplate.config;
 
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
@@ -11,46 +16,102 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 
 import static java.util.Objects.isNull;
 
 @Component
-public class OAuthClientInterceptor implements ClientHttpRequestInterceptor {
+public class OAuthClientInterceptor implements ClientHttpRequestInterceptor, DisposableBean {
+	public static final Duration DEFAULT_REFRESH_BEFORE = Duration.ofSeconds(60);
+
 	private final OAuth2AuthorizedClientManager manager;
-	private final Authentication principal;
+	private final OAuth2AuthorizedClientService authorizedClientService;
 	private final ClientRegistration clientRegistration;
+	private final Authentication principal;
+	private final OAuth2AuthorizeRequest authorizeRequest;
+	private final AccessTokenHolder tokenHolder;
 
 	public OAuthClientInterceptor(@Qualifier("auth2AuthorizedClientManager") OAuth2AuthorizedClientManager manager,
 				ClientRegistrationRepository clientRegistrationRepository) {
+		this(manager, clientRegistrationRepository, null, DEFAULT_REFRESH_BEFORE, ObservationRegistry.NOOP);
+	}
+
+	@Autowired
+	public OAuthClientInterceptor(@Qualifier("auth2AuthorizedClientManager") OAuth2AuthorizedClientManager manager,
+				ClientRegistrationRepository clientRegistrationRepository,
+				ObjectProvider<OAuth2AuthorizedClientService> authorizedClientService,
+				@Value("${rest.template.oauth.refresh-before:60s}") Duration refreshBefore,
+				ObjectProvider<ObservationRegistry> observationRegistry) {
+		this(manager, clientRegistrationRepository, authorizedClientService.getIfAvailable(), refreshBefore,
+			observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+	}
+
+	private OAuthClientInterceptor(OAuth2AuthorizedClientManager manager,
+				ClientRegistrationRepository clientRegistrationRepository,
+				OAuth2AuthorizedClientService authorizedClientService,
+				Duration refreshBefore,
+				ObservationRegistry observationRegistry) {
 		this.manager = manager;
-		this.principal = createPrincipal();
+		this.authorizedClientService = authorizedClientService;
 		this.clientRegistration = clientRegistrationRepository.findByRegistrationId("springauth");
+		this.principal = createPrincipal();
+		this.authorizeRequest = OAuth2AuthorizeRequest
+			.withClientRegistrationId(clientRegistration.getRegistrationId())
+			.principal(principal)
+			.build();
+		this.tokenHolder = new AccessTokenHolder(this::fetchToken, refreshBefore, observationRegistry);
 	}
 
 	@Override
 	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
-		OAuth2AuthorizeRequest oAuth2AuthorizeRequest = OAuth2AuthorizeRequest
-			.withClientRegistrationId(clientRegistration.getRegistrationId())
-			.principal(createPrincipal())
-			.build();
+		OAuth2AccessToken token = tokenHolder.getToken();
+		request.getHeaders().setBearerAuth(token.getTokenValue());
+
+		ClientHttpResponse response = execution.execute(request, body);
+		if (response.getStatusCode().value() == HttpStatus.UNAUTHORIZED.value()) {
+			// the token was revoked or rotated server side; TokenRefreshingRestTemplate repeats the
+			// exchange, which then fetches a new one
+			invalidate(token);
+		}
+		return response;
+	}
 
-		OAuth2AuthorizedClient client = manager.authorize(oAuth2AuthorizeRequest);
+	/**
+	 * Fetches the access token now unless a valid one is held, so the next request does not wait for it.
+	 */
+	public void prefetchToken() {
+		tokenHolder.getToken();
+	}
+
+	@Override
+	public void destroy() {
+		tokenHolder.close();
+	}
+
+	private OAuth2AccessToken fetchToken() {
+		OAuth2AuthorizedClient client = manager.authorize(authorizeRequest);
 
 		if (isNull(client)) {
 			throw new IllegalStateException("Missing credentials");
 		}
 
-		request.getHeaders().add(HttpHeaders.AUTHORIZATION,
-			"Bearer " + client.getAccessToken().getTokenValue());
+		return client.getAccessToken();
+	}
 
-		return execution.execute(request, body);
+	private void invalidate(OAuth2AccessToken token) {
+		tokenHolder.invalidate(token);
+		if (authorizedClientService != null) {
+			authorizedClientService.removeAuthorizedClient(clientRegistration.getRegistrationId(), principal.getName());
+		}
 	}
 
 	private Authentication createPrincipal() {
@@ -0,0 +1,53 @@
+package guru.springframework.spring6resttemplate.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.InMemoryReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientProvider;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+@Configuration
+public class ReactiveBeerClientConfig {
+
+	@Bean
+	public ReactiveOAuthClientFilter reactiveOAuthClientFilter(
+			ClientRegistrationRepository clientRegistrationRepository,
+			@Value("${rest.template.oauth.refresh-before:60s}") Duration refreshBefore) {
+
+		// same springauth registration as the RestTemplate, but fetched without blocking
+		ClientRegistration clientRegistration = clientRegistrationRepository.findByRegistrationId("springauth");
+		ReactiveClientRegistrationRepository reactiveRegistrations =
+			new InMemoryReactiveClientRegistrationRepository(clientRegistration);
+		ReactiveOAuth2AuthorizedClientService authorizedClientService =
+			new InMemoryReactiveOAuth2AuthorizedClientService(reactiveRegistrations);
+
+		ReactiveOAuth2AuthorizedClientProvider authorizedClientProvider = ReactiveOAuth2AuthorizedClientProviderBuilder.builder()
+			.clientCredentials(clientCredentials -> clientCredentials.clockSkew(refreshBefore))
+			.build();
+		AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager =
+			new AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager(reactiveRegistrations, authorizedClientService);
+		authorizedClientManager.setAuthorizedClientProvider(authorizedClientProvider);
+
+		return new ReactiveOAuthClientFilter(authorizedClientManager, authorizedClientService, clientRegistration,
+			refreshBefore);
+	}
+
+	@Bean
+	public WebClient beerWebClient(WebClient.Builder builder, ReactiveOAuthClientFilter reactiveOAuthClientFilter,
+								   @Value("${rest.template.rootUrl}") String rootUrl) {
+		return builder
+			.baseUrl(rootUrl)
+			.filter(reactiveOAuthClientFilter)
+			.build();
+	}
+}
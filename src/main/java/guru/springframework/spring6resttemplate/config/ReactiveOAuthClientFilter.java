@@ -0,0 +1,101 @@
+package guru.springframework.spring6resttemplate.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking counterpart of {@link OAuthClientInterceptor} for {@code WebClient}.
+ * <p>
+ * The token is cached and shared: concurrent requests subscribe to the same token endpoint call,
+ * and a new token is requested once the current one is within {@code refreshBefore} of expiring, or
+ * half way through the time it had left when it arrived if that is later.
+ * A {@code 401} drops the token and the request is retried once with a new one.
+ */
+public class ReactiveOAuthClientFilter implements ExchangeFilterFunction {
+
+	private final ReactiveOAuth2AuthorizedClientService authorizedClientService;
+	private final ClientRegistration clientRegistration;
+	private final Duration refreshBefore;
+	private final AtomicReference<OAuth2AccessToken> rejected = new AtomicReference<>();
+	private final Mono<FetchedToken> token;
+
+	public ReactiveOAuthClientFilter(ReactiveOAuth2AuthorizedClientManager manager,
+									 ReactiveOAuth2AuthorizedClientService authorizedClientService,
+									 ClientRegistration clientRegistration,
+									 Duration refreshBefore) {
+		this.authorizedClientService = authorizedClientService;
+		this.clientRegistration = clientRegistration;
+		this.refreshBefore = refreshBefore;
+
+		OAuth2AuthorizeRequest authorizeRequest = OAuth2AuthorizeRequest
+			.withClientRegistrationId(clientRegistration.getRegistrationId())
+			.principal(clientRegistration.getClientId())
+			.build();
+		this.token = Mono.defer(() -> manager.authorize(authorizeRequest))
+			.switchIfEmpty(Mono.error(() -> new IllegalStateException("Missing credentials")))
+			.map(client -> new FetchedToken(client.getAccessToken(), refreshAt(client.getAccessToken())))
+			.cacheInvalidateIf(this::isStale);
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		return token.map(FetchedToken::token).flatMap(current -> next.exchange(withBearer(request, current))
+			.flatMap(response -> {
+				if (response.statusCode().value() != HttpStatus.UNAUTHORIZED.value()) {
+					return Mono.just(response);
+				}
+				// the token was revoked or rotated server side; fetch a new one and retry once
+				return response.releaseBody()
+					.then(invalidate(current))
+					.then(token)
+					.map(FetchedToken::token)
+					.flatMap(fresh -> next.exchange(withBearer(request, fresh)));
+			}));
+	}
+
+	private Mono<Void> invalidate(OAuth2AccessToken token) {
+		rejected.set(token);
+		return authorizedClientService.removeAuthorizedClient(
+			clientRegistration.getRegistrationId(), clientRegistration.getClientId());
+	}
+
+	private boolean isStale(FetchedToken fetched) {
+		return fetched.token() == rejected.get()
+			|| fetched.refreshAt() != null && !Instant.now().isBefore(fetched.refreshAt());
+	}
+
+	/**
+	 * A token that lives no longer than {@code refreshBefore} would otherwise be stale as soon as it arrives, and
+	 * every request would fetch a new one.
+	 */
+	private Instant refreshAt(OAuth2AccessToken token) {
+		if (token.getExpiresAt() == null) {
+			return null;
+		}
+		Duration halfLeft = Duration.between(Instant.now(), token.getExpiresAt()).dividedBy(2);
+		Duration ahead = halfLeft.compareTo(refreshBefore) < 0 ? halfLeft : refreshBefore;
+		return token.getExpiresAt().minus(ahead.isNegative() ? Duration.ZERO : ahead);
+	}
+
+	private record FetchedToken(OAuth2AccessToken token, Instant refreshAt) {
+	}
+
+	private static ClientRequest withBearer(ClientRequest request, OAuth2AccessToken token) {
+		return ClientRequest.from(request)
+			.headers(headers -> headers.setBearerAuth(token.getTokenValue()))
+			.build();
+	}
+}
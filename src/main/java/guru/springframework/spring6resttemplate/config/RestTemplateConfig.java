@@ -1,11 +1,37 @@
 package guru.springframework.spring6resttemplate.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import guru.springframework.spring6resttemplate.client.ResilientReadExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProvider;
@@ -14,7 +40,14 @@ import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
+@ImportRuntimeHints(BeerClientRuntimeHints.class)
 public class RestTemplateConfig {
 
 	private static final Logger log = LoggerFactory.getLogger(RestTemplateConfig.class);
@@ -23,12 +56,15 @@ public class RestTemplateConfig {
 	public String BASE_URL;
 
 	@Bean
-	OAuth2AuthorizedClientManager auth2AuthorizedClientManager(
+	public OAuth2AuthorizedClientManager auth2AuthorizedClientManager(
 			ClientRegistrationRepository clientRegistrationRepository,
-			OAuth2AuthorizedClientService oAuth2AuthorizedClientService ){
+			OAuth2AuthorizedClientService oAuth2AuthorizedClientService,
+			@Value("${rest.template.oauth.refresh-before:60s}") Duration refreshBefore){
 
+		// the skew has to cover the interceptor's refresh window, otherwise an early refresh
+		// would just be handed the stored token again
 		OAuth2AuthorizedClientProvider authorizedClientProvider = OAuth2AuthorizedClientProviderBuilder.builder()
-			.clientCredentials()
+			.clientCredentials(clientCredentials -> clientCredentials.clockSkew(refreshBefore))
 			.build();
 
 		AuthorizedClientServiceOAuth2AuthorizedClientManager authorizedClientManager =
@@ -39,10 +75,159 @@ public class RestTemplateConfig {
 	}
 
 	@Bean
-	public RestTemplate restTemplate(RestTemplateBuilder builder, OAuthClientInterceptor interceptor) {
-		return builder
-			.rootUri(BASE_URL)
-			.additionalInterceptors(interceptor)
+	@ConditionalOnProperty(name = "rest.template.transport", havingValue = "pooled", matchIfMissing = true)
+	public PoolingHttpClientConnectionManager poolingConnectionManager(
+			@Value("${rest.template.pool.max-total:100}") int maxTotal,
+			@Value("${rest.template.pool.max-per-route:50}") int maxPerRoute,
+			@Value("${rest.template.pool.connect-timeout:2s}") Duration connectTimeout,
+			@Value("${rest.template.pool.read-timeout:10s}") Duration readTimeout,
+			@Value("${rest.template.pool.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+
+		log.debug("Pooled HTTP transport: maxTotal={}, maxPerRoute={}", maxTotal, maxPerRoute);
+
+		return PoolingHttpClientConnectionManagerBuilder.create()
+			.setMaxConnTotal(maxTotal)
+			.setMaxConnPerRoute(maxPerRoute)
+			.setDefaultConnectionConfig(ConnectionConfig.custom()
+				.setConnectTimeout(Timeout.of(connectTimeout))
+				.setSocketTimeout(Timeout.of(readTimeout))
+				.setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+				.build())
+			.build();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "rest.template.transport", havingValue = "pooled", matchIfMissing = true)
+	public CloseableHttpClient pooledHttpClient(
+			PoolingHttpClientConnectionManager poolingConnectionManager,
+			@Value("${rest.template.pool.lease-timeout:1s}") Duration leaseTimeout,
+			@Value("${rest.template.pool.read-timeout:10s}") Duration readTimeout,
+			@Value("${rest.template.pool.keep-alive:30s}") Duration keepAlive,
+			@Value("${rest.template.pool.idle-eviction:60s}") Duration idleEviction) {
+
+		return HttpClients.custom()
+			.setConnectionManager(poolingConnectionManager)
+			.setDefaultRequestConfig(RequestConfig.custom()
+				.setConnectionRequestTimeout(Timeout.of(leaseTimeout))
+				.setResponseTimeout(Timeout.of(readTimeout))
+				// used when the server does not send a Keep-Alive timeout of its own
+				.setConnectionKeepAlive(TimeValue.of(keepAlive))
+				.build())
+			// CompressionInterceptor negotiates and decodes content encodings, and meters them
+			.disableContentCompression()
+			.evictExpiredConnections()
+			.evictIdleConnections(TimeValue.of(idleEviction))
 			.build();
 	}
+
+	/**
+	 * Opt-in HTTP/2 transport. All requests to the beer API share one connection with a stream per request;
+	 * a server without HTTP/2 (no ALPN {@code h2}, or a refused {@code h2c} upgrade) is spoken to over HTTP/1.1.
+	 * Requests block the calling thread, the client's own work runs on virtual threads.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "rest.template.transport", havingValue = "http2")
+	public HttpClient http2Client(@Qualifier("http2Executor") ExecutorService http2Executor,
+								  @Value("${rest.template.pool.connect-timeout:2s}") Duration connectTimeout) {
+		return HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_2)
+			.connectTimeout(connectTimeout)
+			.executor(http2Executor)
+			.build();
+	}
+
+	/**
+	 * The HTTP/2 client does not shut down an executor it was given; this one is closed after the client.
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "rest.template.transport", havingValue = "http2")
+	public ExecutorService http2Executor() {
+		return Executors.newVirtualThreadPerTaskExecutor();
+	}
+
+	/**
+	 * Request factory of the pooled transport. Requests sent by a hedged read can be aborted once the other
+	 * attempt answered, which frees their connection and limiter permit right away.
+	 */
+	public static ClientHttpRequestFactory pooledRequestFactory(CloseableHttpClient pooledHttpClient) {
+		return new HttpComponentsClientHttpRequestFactory(pooledHttpClient) {
+			@Override
+			protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+				ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+				if (request instanceof Cancellable cancellable) {
+					ResilientReadExecutor.registerAbort(cancellable::cancel);
+				}
+				return request;
+			}
+		};
+	}
+
+	public static ClientHttpRequestFactory http2RequestFactory(HttpClient http2Client, Duration readTimeout) {
+		JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(http2Client);
+		requestFactory.setReadTimeout(readTimeout);
+		return requestFactory;
+	}
+
+	@Bean
+	public BeerClientMetricsInterceptor beerClientMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+		return new BeerClientMetricsInterceptor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+
+	@Bean
+	public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+			@Value("${rest.template.limiter.initial-limit:20}") int initialLimit,
+			@Value("${rest.template.limiter.min-limit:4}") int minLimit,
+			@Value("${rest.template.limiter.max-limit:200}") int maxLimit,
+			@Value("${rest.template.limiter.backoff-ratio:0.9}") double backoffRatio,
+			@Value("${rest.template.limiter.rtt-tolerance:2.0}") double rttTolerance,
+			@Value("${rest.template.limiter.max-wait:500ms}") Duration maxWait) {
+		return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, rttTolerance, maxWait);
+	}
+
+	@Bean
+	public CompressionInterceptor compressionInterceptor(ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${rest.template.compression.request-enabled:false}") boolean requestEnabled,
+			@Value("${rest.template.compression.request-threshold:2048}") int requestThreshold) {
+		return new CompressionInterceptor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+			requestEnabled ? requestThreshold : -1);
+	}
+
+	@Bean
+	public RestTemplate restTemplate(RestTemplateBuilder builder, OAuthClientInterceptor interceptor,
+									 AdaptiveConcurrencyLimiter concurrencyLimiter,
+									 BeerClientMetricsInterceptor metricsInterceptor,
+									 CompressionInterceptor compressionInterceptor,
+									 ObjectProvider<CloseableHttpClient> pooledHttpClient,
+									 ObjectProvider<HttpClient> http2Client,
+									 @Value("${rest.template.pool.read-timeout:10s}") Duration readTimeout,
+									 ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+		HttpClient jdkClient = http2Client.getIfAvailable();
+		RestTemplate restTemplate = builder
+			.rootUri(BASE_URL)
+			.requestFactory(() -> jdkClient != null
+				? http2RequestFactory(jdkClient, readTimeout)
+				: pooledRequestFactory(pooledHttpClient.getObject()))
+			// metrics inside the OAuth interceptor and the limiter so token fetches and waiting for a slot are
+			// not timed as network, and outside compression so they see decoded bodies
+			.additionalInterceptors(interceptor, concurrencyLimiter, metricsInterceptor, compressionInterceptor)
+			.build(TokenRefreshingRestTemplate.class);
+
+		// the default Smile and CBOR converters ignore spring.jackson.* settings; replace them with ones
+		// built like the JSON mapper, and keep them last so bodies without a content type stay JSON
+		restTemplate.getMessageConverters().removeIf(converter ->
+			converter instanceof MappingJackson2SmileHttpMessageConverter
+				|| converter instanceof MappingJackson2CborHttpMessageConverter);
+		restTemplate.getMessageConverters().add(new MappingJackson2SmileHttpMessageConverter(
+			objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::new).factory(new SmileFactory()).build()));
+		restTemplate.getMessageConverters().add(new MappingJackson2CborHttpMessageConverter(
+			objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::new).factory(new CBORFactory()).build()));
+		return restTemplate;
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "rest.template.warmup.enabled", havingValue = "true")
+	public BeerClientWarmup beerClientWarmup(RestTemplate restTemplate, OAuthClientInterceptor interceptor,
+			@Value("${rest.template.warmup.connections:4}") int connections) {
+		return new BeerClientWarmup(restTemplate, interceptor, connections);
+	}
 }
@@ -0,0 +1,32 @@
+package guru.springframework.spring6resttemplate.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+
+/**
+ * Repeats an exchange once when the server answers {@code 401}, after {@link OAuthClientInterceptor} dropped the
+ * rejected token. The repeat is a new request through the whole interceptor chain, so it takes a fresh token, a
+ * concurrency permit and its own metrics, and its body is encoded again. An interceptor cannot do this itself:
+ * calling the execution a second time skips the interceptors after it.
+ */
+public class TokenRefreshingRestTemplate extends RestTemplate {
+
+	@Override
+	protected <T> T doExecute(URI url, String uriTemplate, HttpMethod method, RequestCallback requestCallback,
+							  ResponseExtractor<T> responseExtractor) throws RestClientException {
+		try {
+			return super.doExecute(url, uriTemplate, method, requestCallback, responseExtractor);
+		} catch (HttpClientErrorException.Unauthorized e) {
+			if (getInterceptors().stream().noneMatch(OAuthClientInterceptor.class::isInstance)) {
+				throw e;
+			}
+			return super.doExecute(url, uriTemplate, method, requestCallback, responseExtractor);
+		}
+	}
+}
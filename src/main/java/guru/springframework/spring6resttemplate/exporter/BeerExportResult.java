@@ -0,0 +1,15 @@
+package guru.springframework.spring6resttemplate.exporter;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a completed export. {@code beers} and {@code pages} cover the whole file, including what
+ * an earlier, interrupted run wrote; {@code resumedAfterPage} is {@code -1} for a fresh export.
+ */
+public record BeerExportResult(long beers, int pages, long bytes, String sha256, int resumedAfterPage,
+							   Duration elapsed) {
+
+	public boolean resumed() {
+		return resumedAfterPage >= 0;
+	}
+}
@@ -0,0 +1,180 @@
+package guru.springframework.spring6resttemplate.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import guru.springframework.spring6resttemplate.client.BeerClient;
+import guru.springframework.spring6resttemplate.client.BeerClientImpl;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes the catalog to an NDJSON file, gzip compressed if the file name ends with {@code .gz}.
+ * <p>
+ * Pages are requested one after the other and each beer is written as soon as it is parsed, so only
+ * the write buffer is held in memory. After every page the file is forced to disk and a checkpoint
+ * ({@code <file>.checkpoint}) records the page, the file length and its SHA-256. A later export to the
+ * same file with the same filters checks the hash, cuts off whatever the interrupted run wrote after
+ * the checkpoint and continues with the next page. Compressed exports write one gzip member per page,
+ * which {@link java.util.zip.GZIPInputStream} and {@code gunzip} read as a single stream.
+ */
+@Service
+public class BeerExporter {
+
+	private static final Logger log = LoggerFactory.getLogger(BeerExporter.class);
+
+	private final BeerClient beerClient;
+	private final ObjectMapper objectMapper;
+	private final ObjectWriter beerWriter;
+	private final int pageSize;
+	private final int bufferSize;
+
+	public BeerExporter(BeerClient beerClient, ObjectMapper objectMapper,
+						@Value("${rest.template.export.page-size:500}") int pageSize,
+						@Value("${rest.template.export.buffer-size:65536}") int bufferSize) {
+		this.beerClient = beerClient;
+		this.objectMapper = objectMapper;
+		// the buffer is flushed once per page, not after every beer
+		this.beerWriter = objectMapper.writerFor(BeerDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.pageSize = pageSize;
+		this.bufferSize = bufferSize;
+	}
+
+	public BeerExportResult exportCatalog(Path file) throws IOException {
+		return exportCatalog(file, Map.of());
+	}
+
+	public BeerExportResult exportCatalog(Path file, Map<String, Object> filters) throws IOException {
+		long start = System.nanoTime();
+		boolean gzip = file.getFileName().toString().endsWith(".gz");
+		String query = BeerClientImpl.beerListUri(filters);
+		Path checkpointPath = ExportCheckpoint.pathFor(file);
+		MessageDigest digest = sha256();
+
+		try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+			ExportCheckpoint checkpoint = resumable(ExportCheckpoint.read(checkpointPath, objectMapper),
+				query, gzip, channel, digest);
+			int resumedAfterPage = -1;
+			long beers = 0;
+			if (checkpoint == null) {
+				digest.reset();
+				channel.truncate(0);
+			} else {
+				channel.truncate(checkpoint.bytes());
+				resumedAfterPage = checkpoint.lastPage();
+				beers = checkpoint.beers();
+				log.info("Resuming export to {} after page {} ({} beers)", file, resumedAfterPage, beers);
+			}
+			channel.position(channel.size());
+
+			ChannelOutputStream out = new ChannelOutputStream(channel, digest, bufferSize);
+			int page = resumedAfterPage + 1;
+			PageMetadata metadata;
+			do {
+				metadata = writePage(filters, page, gzip ? new GZIPOutputStream(out, bufferSize) : out);
+				channel.force(false);
+				beers += metadata.numberOfElements();
+				new ExportCheckpoint(query, page, pageSize, gzip, beers, channel.position(), hex(digest))
+					.write(checkpointPath, objectMapper);
+				log.debug("Exported page {} of {} to {}", page + 1, metadata.totalPages(), file);
+				page++;
+			} while (!metadata.isLast() && metadata.numberOfElements() > 0);
+
+			Files.deleteIfExists(checkpointPath);
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+			log.info("Exported {} beers to {} in {} ms", beers, file, elapsed.toMillis());
+			return new BeerExportResult(beers, page, channel.size(), hex(digest), resumedAfterPage, elapsed);
+		}
+	}
+
+	private PageMetadata writePage(Map<String, Object> filters, int page, OutputStream pageOut) throws IOException {
+		// closing the generator closes pageOut, which finishes the gzip member or flushes the buffer
+		try (JsonGenerator generator = objectMapper.createGenerator(pageOut)) {
+			generator.setRootValueSeparator(null);
+			return beerClient.forEachBeer(BeerClientImpl.pageParameters(filters, page, pageSize), beer -> {
+				try {
+					beerWriter.writeValue(generator, beer);
+					generator.writeRaw('\n');
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Hashes the part of the file covered by {@code checkpoint} into {@code digest}.
+	 *
+	 * @return the checkpoint if the export can continue from it, otherwise {@code null}
+	 */
+	private ExportCheckpoint resumable(ExportCheckpoint checkpoint, String query, boolean gzip,
+									   FileChannel channel, MessageDigest digest) throws IOException {
+		if (checkpoint == null) {
+			return null;
+		}
+		if (!query.equals(checkpoint.query()) || checkpoint.pageSize() != pageSize || checkpoint.gzip() != gzip
+			|| channel.size() < checkpoint.bytes()) {
+			log.info("Checkpoint does not match this export, starting over");
+			return null;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+		long position = 0;
+		while (position < checkpoint.bytes()) {
+			buffer.clear().limit((int) Math.min(buffer.capacity(), checkpoint.bytes() - position));
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				return null;
+			}
+			digest.update(buffer.flip());
+			position += read;
+		}
+		if (!hex(digest).equals(checkpoint.sha256())) {
+			log.warn("Export file does not match its checkpoint, starting over");
+			return null;
+		}
+		return checkpoint;
+	}
+
+	private static String hex(MessageDigest digest) {
+		try {
+			// digest() resets, the running hash is still needed
+			return HexFormat.of().formatHex(((MessageDigest) digest.clone()).digest());
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
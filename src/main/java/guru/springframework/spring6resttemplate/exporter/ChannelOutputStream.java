@@ -0,0 +1,72 @@
+package guru.springframework.spring6resttemplate.exporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+
+/**
+ * Buffers writes in a fixed array and hands them to a {@link FileChannel} when the buffer is full or
+ * flushed, updating {@code digest} with exactly the bytes that reach the channel.
+ * <p>
+ * {@link #close()} only flushes: the channel belongs to the caller, which writes each page through
+ * its own (possibly gzip) stream on top of this one.
+ */
+class ChannelOutputStream extends OutputStream {
+
+	private final FileChannel channel;
+	private final MessageDigest digest;
+	private final byte[] buffer;
+	private int count;
+
+	ChannelOutputStream(FileChannel channel, MessageDigest digest, int bufferSize) {
+		this.channel = channel;
+		this.digest = digest;
+		this.buffer = new byte[bufferSize];
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (count == buffer.length) {
+			drain();
+		}
+		buffer[count++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (count == buffer.length) {
+				drain();
+			}
+			int chunk = Math.min(length, buffer.length - count);
+			System.arraycopy(bytes, offset, buffer, count, chunk);
+			count += chunk;
+			offset += chunk;
+			length -= chunk;
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		drain();
+	}
+
+	@Override
+	public void close() throws IOException {
+		drain();
+	}
+
+	private void drain() throws IOException {
+		if (count == 0) {
+			return;
+		}
+		digest.update(buffer, 0, count);
+		ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, count);
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		count = 0;
+	}
+}
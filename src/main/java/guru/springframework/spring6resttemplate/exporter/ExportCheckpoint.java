@@ -0,0 +1,43 @@
+package guru.springframework.spring6resttemplate.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * State of an export after its last completed page. {@code query} is the list URI without paging, so a
+ * checkpoint is only reused for the same filters. {@code lastPage} is zero based, {@code bytes} is the
+ * length of the export file at that point and {@code sha256} the hash of those bytes.
+ */
+record ExportCheckpoint(String query, int lastPage, int pageSize, boolean gzip, long beers, long bytes, String sha256) {
+
+	static Path pathFor(Path file) {
+		return file.resolveSibling(file.getFileName() + ".checkpoint");
+	}
+
+	/**
+	 * @return the checkpoint, or {@code null} if there is none or it cannot be read
+	 */
+	static ExportCheckpoint read(Path path, ObjectMapper objectMapper) {
+		if (!Files.exists(path)) {
+			return null;
+		}
+		try {
+			return objectMapper.readValue(path.toFile(), ExportCheckpoint.class);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Replaces the checkpoint atomically, so a crash leaves either the old or the new one.
+	 */
+	void write(Path path, ObjectMapper objectMapper) throws IOException {
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		objectMapper.writeValue(temp.toFile(), this);
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
@@ -0,0 +1,24 @@
+package guru.springframework.spring6resttemplate.importer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of an import. {@code failures} holds at most the configured number of rows, in row
+ * order; {@code failed} counts all of them.
+ */
+public record BeerImportResult(long rowsRead, long imported, long failed, List<RowFailure> failures,
+							   boolean usedBatchEndpoint, Duration elapsed) {
+
+	public record RowFailure(long row, String reason) {
+	}
+
+	public boolean hasFailures() {
+		return failed > 0;
+	}
+
+	public double rowsPerSecond() {
+		double seconds = elapsed.toNanos() / 1e9;
+		return seconds == 0 ? 0 : rowsRead / seconds;
+	}
+}
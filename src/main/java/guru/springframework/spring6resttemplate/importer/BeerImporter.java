@@ -0,0 +1,206 @@
+package guru.springframework.spring6resttemplate.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.client.BeerClient;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Streams beers from an NDJSON ({@code .ndjson}, {@code .jsonl}) or CSV ({@code .csv}) file into
+ * the beer API.
+ * <p>
+ * Rows are read one at a time and sent in batches of {@code batchSize} to the batch endpoint,
+ * with at most {@code maxInFlight} requests outstanding. Reading blocks while all of them are in
+ * flight, so memory stays bounded by {@code maxInFlight * batchSize} rows whatever the file size.
+ * If the server has no batch endpoint, the import switches to single {@code createBeer} calls
+ * with the same concurrency limit. A batch rejected with a {@code 4xx} is retried row by row so the bad rows
+ * can be reported. A batch that failed with a {@code 5xx} or an I/O error may have been stored anyway, so its
+ * rows are reported as failed instead of being sent again.
+ */
+@Service
+public class BeerImporter {
+
+	private static final Logger log = LoggerFactory.getLogger(BeerImporter.class);
+
+	private final BeerClient beerClient;
+	private final ObjectMapper objectMapper;
+	private final int maxInFlight;
+	private final int batchSize;
+	private final int maxRecordedFailures;
+	private final int progressInterval;
+
+	public BeerImporter(BeerClient beerClient, ObjectMapper objectMapper,
+						@Value("${rest.template.import.max-in-flight:16}") int maxInFlight,
+						@Value("${rest.template.import.batch-size:100}") int batchSize,
+						@Value("${rest.template.import.max-recorded-failures:1000}") int maxRecordedFailures,
+						@Value("${rest.template.import.progress-interval:1000}") int progressInterval) {
+		this.beerClient = beerClient;
+		this.objectMapper = objectMapper;
+		this.maxInFlight = maxInFlight;
+		this.batchSize = batchSize;
+		this.maxRecordedFailures = maxRecordedFailures;
+		this.progressInterval = progressInterval;
+	}
+
+	public BeerImportResult importFile(Path file) throws IOException {
+		return importFile(file, progress -> {});
+	}
+
+	/**
+	 * @param progressListener called every {@code progressInterval} finished rows and once at the end,
+	 *                         possibly from a worker thread
+	 */
+	public BeerImportResult importFile(Path file, Consumer<? super ImportProgress> progressListener) throws IOException {
+		try (BeerRowReader rows = BeerRowReader.open(file, objectMapper)) {
+			return new ImportRun(progressListener).run(rows);
+		}
+	}
+
+	private class ImportRun {
+
+		private final Consumer<? super ImportProgress> progressListener;
+		private final long start = System.nanoTime();
+		private final Semaphore permits = new Semaphore(maxInFlight);
+		// null until the first batch tells whether the server has a batch endpoint
+		private final AtomicReference<Boolean> batchSupported = new AtomicReference<>(batchSize > 1 ? null : false);
+		private final LongAdder rowsRead = new LongAdder();
+		private final LongAdder imported = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final AtomicLong nextProgress = new AtomicLong(progressInterval);
+		private final List<BeerImportResult.RowFailure> failures = new ArrayList<>();
+
+		ImportRun(Consumer<? super ImportProgress> progressListener) {
+			this.progressListener = progressListener;
+		}
+
+		BeerImportResult run(BeerRowReader rows) throws IOException {
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				List<BeerRowReader.BeerRow> batch = new ArrayList<>();
+				BeerRowReader.BeerRow row;
+				while ((row = rows.next()) != null) {
+					rowsRead.increment();
+					if (row.error() != null) {
+						fail(row, row.error());
+						continue;
+					}
+					batch.add(row);
+					if (batch.size() >= currentBatchSize()) {
+						submit(executor, batch);
+						batch = new ArrayList<>();
+					}
+				}
+				if (!batch.isEmpty()) {
+					submit(executor, batch);
+				}
+			}
+
+			ImportProgress progress = progress();
+			progressListener.accept(progress);
+			List<BeerImportResult.RowFailure> recorded;
+			synchronized (failures) {
+				recorded = failures.stream().sorted(Comparator.comparingLong(BeerImportResult.RowFailure::row)).toList();
+			}
+			log.info("Imported {} of {} beers in {} ms, {} failed",
+				progress.imported(), progress.rowsRead(), progress.elapsed().toMillis(), progress.failed());
+			return new BeerImportResult(progress.rowsRead(), progress.imported(), progress.failed(), recorded,
+				Boolean.TRUE.equals(batchSupported.get()), progress.elapsed());
+		}
+
+		private int currentBatchSize() {
+			return Boolean.FALSE.equals(batchSupported.get()) ? 1 : batchSize;
+		}
+
+		private void submit(ExecutorService executor, List<BeerRowReader.BeerRow> batch) {
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while importing beers", e);
+			}
+			executor.execute(() -> {
+				try {
+					send(batch);
+				} finally {
+					permits.release();
+					reportProgressIfDue();
+				}
+			});
+		}
+
+		private void send(List<BeerRowReader.BeerRow> batch) {
+			if (batch.size() > 1 && !Boolean.FALSE.equals(batchSupported.get())) {
+				try {
+					beerClient.createBeers(batch.stream().map(BeerRowReader.BeerRow::beer).toList());
+					batchSupported.set(true);
+					imported.add(batch.size());
+					return;
+				} catch (HttpClientErrorException.NotFound | HttpClientErrorException.MethodNotAllowed
+						 | HttpServerErrorException.NotImplemented e) {
+					if (batchSupported.compareAndSet(null, false)) {
+						log.info("No batch endpoint ({}), importing beers one by one", e.getStatusCode());
+					}
+				} catch (HttpClientErrorException e) {
+					// a rejected batch does not say which row was at fault
+					log.debug("Batch of {} rejected ({}), retrying row by row", batch.size(), e.getStatusCode());
+				} catch (RestClientException e) {
+					// the server may have stored the batch before failing, replaying it could duplicate beers
+					log.warn("Batch of {} failed, not retrying it: {}", batch.size(), e.toString());
+					for (BeerRowReader.BeerRow row : batch) {
+						fail(row, e.getMessage());
+					}
+					return;
+				}
+			}
+			for (BeerRowReader.BeerRow row : batch) {
+				try {
+					beerClient.createBeer(row.beer());
+					imported.increment();
+				} catch (RestClientException e) {
+					fail(row, e.getMessage());
+				}
+			}
+		}
+
+		private void fail(BeerRowReader.BeerRow row, String reason) {
+			failed.increment();
+			synchronized (failures) {
+				if (failures.size() < maxRecordedFailures) {
+					failures.add(new BeerImportResult.RowFailure(row.number(), reason));
+				}
+			}
+		}
+
+		private void reportProgressIfDue() {
+			long due = nextProgress.get();
+			if (imported.sum() + failed.sum() >= due && nextProgress.compareAndSet(due, due + progressInterval)) {
+				progressListener.accept(progress());
+			}
+		}
+
+		private ImportProgress progress() {
+			return new ImportProgress(rowsRead.sum(), imported.sum(), failed.sum(),
+				Duration.ofNanos(System.nanoTime() - start));
+		}
+	}
+}
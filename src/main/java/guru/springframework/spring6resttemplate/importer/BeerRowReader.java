@@ -0,0 +1,61 @@
+package guru.springframework.spring6resttemplate.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+/**
+ * Reads an import file one row at a time, so only the current row is held in memory.
+ * Rows are numbered from 1 and a CSV header is not counted.
+ */
+abstract class BeerRowReader implements Closeable {
+
+	/**
+	 * A parsed row: either {@code beer} or, if the row could not be read or is not valid, {@code error}.
+	 */
+	record BeerRow(long number, BeerDTO beer, String error) {
+	}
+
+	static BeerRowReader open(Path file, ObjectMapper objectMapper) throws IOException {
+		String name = file.getFileName().toString().toLowerCase();
+		return name.endsWith(".csv")
+			? new CsvBeerRowReader(file, objectMapper)
+			: new NdjsonBeerRowReader(file, objectMapper);
+	}
+
+	/**
+	 * @return the next row, or {@code null} at the end of the file
+	 */
+	abstract BeerRow next() throws IOException;
+
+	static BeerRow validated(long number, BeerDTO beer) {
+		String error = validate(beer);
+		return error == null ? new BeerRow(number, beer, null) : new BeerRow(number, null, error);
+	}
+
+	private static String validate(BeerDTO beer) {
+		if (beer.getId() != null) {
+			return "id must be empty, ids are assigned by the server";
+		}
+		if (beer.getBeerName() == null || beer.getBeerName().isBlank()) {
+			return "beerName is required";
+		}
+		if (beer.getBeerStyle() == null) {
+			return "beerStyle is required";
+		}
+		if (beer.getUpc() == null || beer.getUpc().isBlank()) {
+			return "upc is required";
+		}
+		if (beer.getPrice() == null || beer.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+			return "price is required and must not be negative";
+		}
+		if (beer.getQuantityOnHand() != null && beer.getQuantityOnHand() < 0) {
+			return "quantityOnHand must not be negative";
+		}
+		return null;
+	}
+}
@@ -0,0 +1,60 @@
+package guru.springframework.spring6resttemplate.importer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * CSV with a header row naming the {@link BeerDTO} properties, e.g.
+ * {@code beerName,beerStyle,upc,quantityOnHand,price}. Cells are read as strings and converted
+ * with the application's {@link ObjectMapper}, so types are coerced the same way as in JSON.
+ */
+class CsvBeerRowReader extends BeerRowReader {
+
+	private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+	private final MappingIterator<Map<String, String>> rows;
+	private final ObjectMapper objectMapper;
+	private long rowNumber;
+
+	CsvBeerRowReader(Path file, ObjectMapper objectMapper) throws IOException {
+		this.rows = CSV_MAPPER.readerForMapOf(String.class)
+			.with(CsvSchema.emptySchema().withHeader())
+			.readValues(file.toFile());
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	BeerRow next() throws IOException {
+		if (!rows.hasNextValue()) {
+			return null;
+		}
+		rowNumber++;
+		Map<String, String> row;
+		try {
+			row = rows.nextValue();
+		} catch (IOException | RuntimeJsonMappingException e) {
+			return new BeerRow(rowNumber, null, "Invalid CSV: " + e.getMessage());
+		}
+
+		// empty cells mean "not set" rather than an empty string
+		row.values().removeIf(String::isEmpty);
+		try {
+			return validated(rowNumber, objectMapper.convertValue(row, BeerDTO.class));
+		} catch (IllegalArgumentException e) {
+			return new BeerRow(rowNumber, null, "Invalid value: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		rows.close();
+	}
+}
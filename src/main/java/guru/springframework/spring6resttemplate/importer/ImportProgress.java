@@ -0,0 +1,14 @@
+package guru.springframework.spring6resttemplate.importer;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of a running import. {@code imported} and {@code failed} only count rows whose outcome is known.
+ */
+public record ImportProgress(long rowsRead, long imported, long failed, Duration elapsed) {
+
+	public double rowsPerSecond() {
+		double seconds = elapsed.toNanos() / 1e9;
+		return seconds == 0 ? 0 : (imported + failed) / seconds;
+	}
+}
@@ -0,0 +1,51 @@
+package guru.springframework.spring6resttemplate.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One JSON object per line. Lines are parsed on their own, so a malformed line only fails that row.
+ * Blank lines are skipped but still counted.
+ */
+class NdjsonBeerRowReader extends BeerRowReader {
+
+	private final BufferedReader reader;
+	private final ObjectReader beerReader;
+	private long lineNumber;
+
+	NdjsonBeerRowReader(Path file, ObjectMapper objectMapper) throws IOException {
+		this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+		this.beerReader = objectMapper.readerFor(BeerDTO.class);
+	}
+
+	@Override
+	BeerRow next() throws IOException {
+		String line;
+		do {
+			line = reader.readLine();
+			if (line == null) {
+				return null;
+			}
+			lineNumber++;
+		} while (line.isBlank());
+
+		try {
+			return validated(lineNumber, beerReader.readValue(line));
+		} catch (JsonProcessingException e) {
+			return new BeerRow(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
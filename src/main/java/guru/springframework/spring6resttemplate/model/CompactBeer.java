@@ -0,0 +1,159 @@
+package guru.springframework.spring6resttemplate.model;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Immutable storage form of a {@link BeerDTO} for caches that hold many beers.
+ * <p>
+ * A {@code BeerDTO} points to a {@code UUID}, boxed numbers, a {@code BigDecimal}, two {@code LocalDateTime}s
+ * (each with a {@code LocalDate} and a {@code LocalTime}) and two {@code String}s. Here the id is two longs,
+ * the price an unscaled long with its scale, timestamps nanoseconds since the epoch (read as UTC), the style
+ * its ordinal, and the names UTF-8 bytes. Which of the nullable fields are set is kept in a bit mask, so
+ * every value, including {@code null}, converts back unchanged. Converting creates a new {@code BeerDTO},
+ * which makes a separate defensive copy unnecessary.
+ * <p>
+ * Prices need an unscaled value that fits in a long and timestamps must lie between the years 1677 and 2262;
+ * {@link #of(BeerDTO)} throws {@link ArithmeticException} otherwise.
+ */
+public final class CompactBeer {
+
+	private static final int ID = 1;
+	private static final int VERSION = 1 << 1;
+	private static final int STYLE = 1 << 2;
+	private static final int QUANTITY = 1 << 3;
+	private static final int PRICE = 1 << 4;
+	private static final int CREATED = 1 << 5;
+	private static final int UPDATED = 1 << 6;
+
+	private static final BeerStyle[] STYLES = BeerStyle.values();
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private final long idMostSignificantBits;
+	private final long idLeastSignificantBits;
+	private final long priceUnscaled;
+	private final long createdNanos;
+	private final long updatedNanos;
+	private final int version;
+	private final int quantityOnHand;
+	private final byte[] beerName;
+	private final byte[] upc;
+	private final byte priceScale;
+	private final byte style;
+	private final byte present;
+
+	private CompactBeer(BeerDTO beer) {
+		int present = 0;
+		if (beer.getId() != null) {
+			present |= ID;
+			this.idMostSignificantBits = beer.getId().getMostSignificantBits();
+			this.idLeastSignificantBits = beer.getId().getLeastSignificantBits();
+		} else {
+			this.idMostSignificantBits = 0;
+			this.idLeastSignificantBits = 0;
+		}
+		if (beer.getPrice() != null) {
+			present |= PRICE;
+			BigDecimal price = beer.getPrice();
+			if (price.scale() < Byte.MIN_VALUE || price.scale() > Byte.MAX_VALUE) {
+				throw new ArithmeticException("Price scale out of range: " + price);
+			}
+			this.priceUnscaled = price.unscaledValue().longValueExact();
+			this.priceScale = (byte) price.scale();
+		} else {
+			this.priceUnscaled = 0;
+			this.priceScale = 0;
+		}
+		this.createdNanos = toEpochNanos(beer.getCreatedDate());
+		this.updatedNanos = toEpochNanos(beer.getUpdateDate());
+		present |= beer.getCreatedDate() != null ? CREATED : 0;
+		present |= beer.getUpdateDate() != null ? UPDATED : 0;
+		present |= beer.getVersion() != null ? VERSION : 0;
+		present |= beer.getQuantityOnHand() != null ? QUANTITY : 0;
+		present |= beer.getBeerStyle() != null ? STYLE : 0;
+		this.version = beer.getVersion() != null ? beer.getVersion() : 0;
+		this.quantityOnHand = beer.getQuantityOnHand() != null ? beer.getQuantityOnHand() : 0;
+		this.style = beer.getBeerStyle() != null ? (byte) beer.getBeerStyle().ordinal() : 0;
+		this.beerName = encode(beer.getBeerName());
+		this.upc = encode(beer.getUpc());
+		this.present = (byte) present;
+	}
+
+	public static CompactBeer of(BeerDTO beer) {
+		return new CompactBeer(beer);
+	}
+
+	public BeerDTO toBeerDTO() {
+		return BeerDTO.builder()
+			.id(id())
+			.version(version())
+			.beerName(beerName())
+			.beerStyle(beerStyle())
+			.upc(upc())
+			.quantityOnHand(has(QUANTITY) ? quantityOnHand : null)
+			.price(has(PRICE) ? BigDecimal.valueOf(priceUnscaled, priceScale) : null)
+			.createdDate(has(CREATED) ? fromEpochNanos(createdNanos) : null)
+			.updateDate(updateDate())
+			.build();
+	}
+
+	public UUID id() {
+		return has(ID) ? new UUID(idMostSignificantBits, idLeastSignificantBits) : null;
+	}
+
+	/**
+	 * Compares ids the way {@link UUID#compareTo(UUID)} does, without creating them.
+	 */
+	public int compareId(CompactBeer other) {
+		int most = Long.compare(idMostSignificantBits, other.idMostSignificantBits);
+		return most != 0 ? most : Long.compare(idLeastSignificantBits, other.idLeastSignificantBits);
+	}
+
+	public Integer version() {
+		return has(VERSION) ? version : null;
+	}
+
+	public String beerName() {
+		return decode(beerName);
+	}
+
+	public BeerStyle beerStyle() {
+		return has(STYLE) ? STYLES[style] : null;
+	}
+
+	public String upc() {
+		return decode(upc);
+	}
+
+	public LocalDateTime updateDate() {
+		return has(UPDATED) ? fromEpochNanos(updatedNanos) : null;
+	}
+
+	private boolean has(int field) {
+		return (present & field) != 0;
+	}
+
+	private static long toEpochNanos(LocalDateTime dateTime) {
+		if (dateTime == null) {
+			return 0;
+		}
+		return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND),
+			dateTime.getNano());
+	}
+
+	private static LocalDateTime fromEpochNanos(long nanos) {
+		return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+			(int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+	}
+
+	private static byte[] encode(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String decode(byte[] value) {
+		return value == null ? null : new String(value, StandardCharsets.UTF_8);
+	}
+}
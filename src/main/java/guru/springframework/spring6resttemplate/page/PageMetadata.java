@@ -0,0 +1,16 @@
+package guru.springframework.spring6resttemplate.page;
+
+/**
+ * Paging information of a page whose content was handed out element by element
+ * instead of being collected.
+ */
+public record PageMetadata(int number, int size, long totalElements, int numberOfElements) {
+
+	public int totalPages() {
+		return size == 0 ? 1 : (int) Math.ceil((double) totalElements / (double) size);
+	}
+
+	public boolean isLast() {
+		return number + 1 >= totalPages();
+	}
+}
@@ -0,0 +1,163 @@
+package guru.springframework.spring6resttemplate.page;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking counterpart of {@link StreamingPageReader}. Feeds the body buffers of a page into
+ * Jackson's non-blocking parser and emits each element of {@code content} as soon as its last
+ * byte has arrived, without waiting for the rest of the page.
+ */
+public class StreamingPageDecoder<T> {
+
+	private final ObjectMapper objectMapper;
+	private final ObjectReader elementReader;
+
+	public StreamingPageDecoder(ObjectMapper objectMapper, Class<T> elementType) {
+		this.objectMapper = objectMapper;
+		this.elementReader = objectMapper.readerFor(elementType);
+	}
+
+	/**
+	 * @param metadataConsumer receives the paging information once the whole body was decoded,
+	 *                         before the returned {@code Flux} completes
+	 */
+	public Flux<T> decode(Flux<DataBuffer> body, Consumer<? super PageMetadata> metadataConsumer) {
+		return Flux.defer(() -> {
+			PageParser parser = new PageParser();
+			return body
+				.concatMapIterable(parser::feed)
+				.concatWith(Flux.defer(() -> Flux.fromIterable(parser.finish())))
+				.doOnComplete(() -> metadataConsumer.accept(parser.metadata()))
+				.doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+				.doFinally(signal -> parser.close());
+		});
+	}
+
+	private class PageParser {
+
+		private final JsonParser parser;
+		private final ByteArrayFeeder feeder;
+
+		private int depth;
+		private String field;
+		private boolean inContent;
+		private TokenBuffer element;
+
+		private int number;
+		private int size;
+		private long totalElements;
+		private int numberOfElements;
+
+		PageParser() {
+			try {
+				this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+			} catch (IOException e) {
+				throw new DecodingException("Could not create a non-blocking JSON parser", e);
+			}
+			this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+		}
+
+		List<T> feed(DataBuffer buffer) {
+			try {
+				byte[] bytes = new byte[buffer.readableByteCount()];
+				buffer.read(bytes);
+				feeder.feedInput(bytes, 0, bytes.length);
+				return drain();
+			} catch (IOException e) {
+				throw new DecodingException("Invalid page body", e);
+			} finally {
+				DataBufferUtils.release(buffer);
+			}
+		}
+
+		List<T> finish() {
+			feeder.endOfInput();
+			try {
+				List<T> remaining = drain();
+				if (depth != 0) {
+					throw new DecodingException("Page body ended before the page was complete");
+				}
+				return remaining;
+			} catch (IOException e) {
+				throw new DecodingException("Invalid page body", e);
+			}
+		}
+
+		PageMetadata metadata() {
+			return new PageMetadata(number, size, totalElements, numberOfElements);
+		}
+
+		void close() {
+			try {
+				parser.close();
+			} catch (IOException ignored) {
+				// nothing was written, there is nothing left to flush
+			}
+		}
+
+		private List<T> drain() throws IOException {
+			List<T> elements = List.of();
+			JsonToken token;
+			while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+				if (element != null) {
+					element.copyCurrentEvent(parser);
+					depth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+					if (depth == 2) {
+						if (elements.isEmpty()) {
+							elements = new ArrayList<>();
+						}
+						elements.add(elementReader.readValue(element.asParser()));
+						numberOfElements++;
+						element = null;
+					}
+					continue;
+				}
+
+				if (token.isStructStart()) {
+					depth++;
+					if (depth == 1 && token != JsonToken.START_OBJECT) {
+						throw new DecodingException("Expected a page object but got " + token);
+					}
+					if (depth == 2 && token == JsonToken.START_ARRAY && "content".equals(field)) {
+						inContent = true;
+					} else if (depth == 3 && inContent) {
+						element = new TokenBuffer(parser);
+						element.copyCurrentEvent(parser);
+					}
+				} else if (token.isStructEnd()) {
+					depth--;
+					if (depth == 1) {
+						inContent = false;
+					}
+				} else if (token == JsonToken.FIELD_NAME) {
+					if (depth == 1) {
+						field = parser.currentName();
+					}
+				} else if (depth == 1) {
+					switch (field) {
+						case "number" -> number = parser.getIntValue();
+						case "size" -> size = parser.getIntValue();
+						case "totalElements" -> totalElements = parser.getLongValue();
+						default -> {
+						}
+					}
+				}
+			}
+			return elements;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package guru.springframework.spring6resttemplate.page;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Token by token counterpart of binding a {@link RestResponsePage}. Each element of
+ * {@code content} is handed to a consumer as soon as it is parsed, so only one element
+ * is alive at a time instead of the whole page.
+ */
+public class StreamingPageReader<T> {
+
+	private final ObjectReader elementReader;
+
+	public StreamingPageReader(ObjectMapper objectMapper, Class<T> elementType) {
+		this.elementReader = objectMapper.readerFor(elementType);
+	}
+
+	public PageMetadata read(InputStream body, Consumer<? super T> consumer) throws IOException {
+		try (JsonParser parser = elementReader.createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw MismatchedInputException.from(parser, RestResponsePage.class, "Expected a page object");
+			}
+
+			int number = 0;
+			int size = 0;
+			long totalElements = 0;
+			int numberOfElements = 0;
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.currentName();
+				JsonToken value = parser.nextToken();
+				switch (field) {
+					case "content" -> {
+						if (value == JsonToken.START_ARRAY) {
+							while (parser.nextToken() != JsonToken.END_ARRAY) {
+								T element = elementReader.readValue(parser);
+								consumer.accept(element);
+								numberOfElements++;
+							}
+						}
+					}
+					case "number" -> number = parser.getIntValue();
+					case "size" -> size = parser.getIntValue();
+					case "totalElements" -> totalElements = parser.getLongValue();
+					default -> parser.skipChildren();
+				}
+			}
+			return new PageMetadata(number, size, totalElements, numberOfElements);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AsyncBeerClientImplTest {
+
+	BeerClient beerClient = mock(BeerClient.class);
+	AsyncBeerClientImpl asyncBeerClient;
+
+	@AfterEach
+	void tearDown() {
+		asyncBeerClient.destroy();
+	}
+
+	@Test
+	void testFindBeersByIdsCollectsPartialFailures() throws Exception {
+		asyncBeerClient = new AsyncBeerClientImpl(beerClient, 4);
+		UUID found = UUID.randomUUID();
+		UUID missing = UUID.randomUUID();
+		when(beerClient.findBeerById(found)).thenReturn(BeerDTO.builder().id(found).build());
+		when(beerClient.findBeerById(missing)).thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+		BeerBatchResult result = asyncBeerClient.findBeersByIds(List.of(found, missing, found))
+			.get(5, TimeUnit.SECONDS);
+
+		assertThat(result.succeeded()).containsOnlyKeys(found);
+		assertThat(result.failed()).containsOnlyKeys(missing);
+		assertThat(result.failed().get(missing)).isInstanceOf(HttpClientErrorException.class);
+		assertThat(result.hasFailures()).isTrue();
+	}
+
+	@Test
+	void testPatchBeersAppliesChangeToCopies() throws Exception {
+		asyncBeerClient = new AsyncBeerClientImpl(beerClient, 4);
+		BeerDTO stocked = BeerDTO.builder().id(UUID.randomUUID()).version(1).quantityOnHand(10).build();
+		BeerDTO conflicting = BeerDTO.builder().id(UUID.randomUUID()).version(1).quantityOnHand(5).build();
+		when(beerClient.patchBeer(any(), any(), any())).thenAnswer(invocation -> {
+			if (invocation.getArgument(0).equals(conflicting.getId())) {
+				throw new HttpClientErrorException(HttpStatus.PRECONDITION_FAILED);
+			}
+			return invocation.getArgument(2);
+		});
+
+		BeerBatchResult result = asyncBeerClient.patchBeers(List.of(stocked, conflicting),
+			beer -> beer.setQuantityOnHand(beer.getQuantityOnHand() - 2)).get(5, TimeUnit.SECONDS);
+
+		assertThat(result.succeeded().get(stocked.getId()).getQuantityOnHand()).isEqualTo(8);
+		assertThat(result.failed()).containsOnlyKeys(conflicting.getId());
+		assertThat(stocked.getQuantityOnHand()).isEqualTo(10);
+	}
+
+	@Test
+	void testPatchBeersRejectsDuplicateIds() {
+		asyncBeerClient = new AsyncBeerClientImpl(beerClient, 4);
+		BeerDTO beer = BeerDTO.builder().id(UUID.randomUUID()).version(1).quantityOnHand(10).build();
+		BeerDTO other = BeerDTO.builder().id(UUID.randomUUID()).version(1).quantityOnHand(5).build();
+
+		assertThatThrownBy(() -> asyncBeerClient.patchBeers(List.of(beer, other, beer.toBuilder().build()),
+			changed -> changed.setQuantityOnHand(0)))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining(beer.getId().toString());
+		verifyNoInteractions(beerClient);
+	}
+
+	@Test
+	void testConcurrencyIsCapped() throws Exception {
+		asyncBeerClient = new AsyncBeerClientImpl(beerClient, 3);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		when(beerClient.findBeerById(any())).thenAnswer(invocation -> {
+			peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+			Thread.sleep(20);
+			running.decrementAndGet();
+			return BeerDTO.builder().id(invocation.getArgument(0)).build();
+		});
+
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			ids.add(UUID.randomUUID());
+		}
+		BeerBatchResult result = asyncBeerClient.findBeersByIds(ids).get(10, TimeUnit.SECONDS);
+
+		assertThat(result.succeeded()).hasSize(30);
+		assertThat(peak.get()).isLessThanOrEqualTo(3);
+	}
+}
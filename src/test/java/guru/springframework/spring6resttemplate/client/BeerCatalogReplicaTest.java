@@ -0,0 +1,185 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BeerCatalogReplicaTest {
+
+	static final LocalDateTime CREATED = LocalDateTime.parse("2024-05-01T10:00:00");
+
+	MutableClock clock = new MutableClock(Instant.parse("2024-05-01T12:00:00Z"));
+	List<BeerDTO> server = new ArrayList<>();
+	BeerClient beerClient = mock(BeerClient.class);
+	BeerCatalogReplica replica = new BeerCatalogReplica(() -> beerClient, 2, Duration.ofHours(1),
+		Duration.ofHours(6), Duration.ofMinutes(5), clock);
+
+	@BeforeEach
+	void setUp() {
+		server.add(beer("Galaxy Pale Ale", BeerStyle.PALE_ALE, "100"));
+		server.add(beer("Mango Ale", BeerStyle.ALE, "101"));
+		server.add(beer("Crank Yanker", BeerStyle.IPA, "102"));
+		server.add(beer("Sunshine City", BeerStyle.IPA, "103"));
+		server.add(beer("Pale Rider", BeerStyle.ALE, "104"));
+		when(beerClient.forEachBeer(anyMap(), any())).thenAnswer(invocation -> {
+			Map<String, Object> parameters = invocation.getArgument(0);
+			Consumer<? super BeerDTO> consumer = invocation.getArgument(1);
+			int page = (Integer) parameters.get(BeerClientImpl.PAGE_NUMBER_PARAM) - 1;
+			int size = (Integer) parameters.get(BeerClientImpl.PAGE_SIZE_PARAM);
+			List<BeerDTO> content = server.subList(Math.min(page * size, server.size()),
+				Math.min((page + 1) * size, server.size()));
+			content.forEach(beer -> consumer.accept(BeerDTOCache.copy(beer)));
+			return new PageMetadata(page, size, server.size(), content.size());
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		replica.close();
+	}
+
+	@Test
+	void testAnswersQueriesLikeTheServer() {
+		replica.sync();
+
+		Page<BeerDTO> ales = replica.findAllBeers(Map.of("beerName", "ALE"));
+		assertThat(ales.getContent()).extracting(BeerDTO::getBeerName)
+			.containsExactly("Galaxy Pale Ale", "Mango Ale", "Pale Rider");
+
+		Page<BeerDTO> secondPage = replica.findAllBeers(Map.of("beerName", "ale", "beerStyle", "ALE",
+			BeerClientImpl.PAGE_NUMBER_PARAM, 2, BeerClientImpl.PAGE_SIZE_PARAM, 1));
+		assertThat(secondPage.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Pale Rider");
+		assertThat(secondPage.getTotalElements()).isEqualTo(2);
+		assertThat(secondPage.getNumber()).isEqualTo(1);
+
+		Page<BeerDTO> ipas = replica.findAllBeers(Map.of("beerStyle", "IPA", "showInventory", false));
+		assertThat(ipas.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Crank Yanker", "Sunshine City");
+		assertThat(ipas.getContent()).extracting(BeerDTO::getQuantityOnHand).containsOnlyNulls();
+
+		assertThat(replica.findAllBeers(Map.of("beerName", "AN")).getTotalElements()).isEqualTo(2);
+		assertThat(replica.findByUpc("103")).extracting(BeerDTO::getBeerName).containsExactly("Sunshine City");
+	}
+
+	@Test
+	void testIncrementalSyncKeepsNewerVersionsAndFullSyncDropsDeleted() {
+		replica.sync();
+		BeerDTO mango = server.get(1);
+		server.set(1, mango.toBuilder().beerName("Mango Sour").version(2).updateDate(CREATED.plusHours(1)).build());
+		// an older version must not overwrite the local copy
+		server.set(2, server.get(2).toBuilder().beerName("Outdated").version(0).build());
+
+		clock.advance(Duration.ofMinutes(10));
+		assertThat(replica.isFresh()).isFalse();
+		replica.sync();
+
+		verify(beerClient, atLeastOnce()).forEachBeer(argThat(parameters ->
+			CREATED.toString().equals(parameters.get(BeerCatalogReplica.UPDATED_SINCE_PARAM))), any());
+		assertThat(replica.findAllBeers(Map.of("beerName", "mango")).getContent())
+			.extracting(BeerDTO::getBeerName).containsExactly("Mango Sour");
+		assertThat(replica.findAllBeers(Map.of("beerName", "ale")).getTotalElements()).isEqualTo(2);
+		assertThat(replica.findAllBeers(Map.of("beerName", "outdated")).getTotalElements()).isZero();
+
+		server.remove(4);
+		replica.sync();
+		assertThat(replica.size()).isEqualTo(5);
+
+		clock.advance(Duration.ofHours(6));
+		replica.sync();
+		assertThat(replica.size()).isEqualTo(4);
+		assertThat(replica.findAllBeers(Map.of("beerName", "rider")).getTotalElements()).isZero();
+	}
+
+	@Test
+	void testDeclinesStaleAndUnknownQueries() {
+		assertThat(replica.isFresh()).isFalse();
+		replica.sync();
+
+		assertThat(replica.findAllBeers(Map.of())).isNotNull();
+		assertThat(replica.findAllBeers(Map.of("beerStyle", "NOT_A_STYLE"))).isNull();
+		assertThat(replica.findAllBeers(Map.of("sort", "price"))).isNull();
+
+		clock.advance(Duration.ofMinutes(6));
+		assertThat(replica.findAllBeers(Map.of())).isNull();
+		assertThat(BeerCatalogReplica.disabled().findAllBeers(Map.of())).isNull();
+	}
+
+	@Test
+	void testAppliesLocalWritesAndDeletes() {
+		replica.sync();
+		BeerDTO created = beer("Local Lager", BeerStyle.LAGER, "200");
+
+		replica.apply(created);
+		created.setBeerName("changed by caller");
+		replica.remove(server.get(0).getId());
+
+		assertThat(replica.findAllBeers(Map.of("beerStyle", "LAGER")).getContent())
+			.extracting(BeerDTO::getBeerName).containsExactly("Local Lager");
+		assertThat(replica.findAllBeers(Map.of("beerName", "galaxy")).getTotalElements()).isZero();
+	}
+
+	private static BeerDTO beer(String name, BeerStyle style, String upc) {
+		return BeerDTO.builder()
+			.id(UUID.randomUUID())
+			.version(1)
+			.beerName(name)
+			.beerStyle(style)
+			.upc(upc)
+			.quantityOnHand(10)
+			.createdDate(CREATED)
+			.updateDate(CREATED)
+			.build();
+	}
+
+	static class MutableClock extends Clock {
+
+		private Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package guru.springframework.spring6resttemplate.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.config.BeerClientConfig;
+import guru.springframework.spring6resttemplate.config.RestTemplateConfig;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestToUriTemplate;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@RestClientTest(value = BeerClientImpl.class, properties = {
+	"rest.template.cache.enabled=true",
+	"rest.template.cache.ttl=0s"
+})
+@Import({RestTemplateConfig.class, BeerClientConfig.class, BeerClientMockTest.TestConfig.class})
+class BeerClientCacheMockTest {
+
+	static final String ETAG = "\"1\"";
+
+	@Autowired
+	BeerClient beerClient;
+
+	@Autowired
+	BeerDTOCache beerCache;
+
+	@Autowired
+	MockRestServiceServer server;
+
+	@Autowired
+	ObjectMapper mapper;
+
+	@Autowired
+	ClientRegistrationRepository clientRegistrationRepository;
+
+	@MockBean
+	OAuth2AuthorizedClientManager manager;
+
+	BeerDTO beer = BeerDTO.builder()
+		.id(UUID.randomUUID())
+		.version(1)
+		.beerName("Mango Bobs")
+		.beerStyle(BeerStyle.IPA)
+		.price(new BigDecimal("10.99"))
+		.build();
+
+	@BeforeEach
+	void setUp() {
+		OAuth2AccessToken token = new OAuth2AccessToken(
+			OAuth2AccessToken.TokenType.BEARER, "test", Instant.MIN, Instant.MAX);
+		when(manager.authorize(any())).thenReturn(new OAuth2AuthorizedClient(
+			clientRegistrationRepository.findByRegistrationId("springauth"), "test", token));
+	}
+
+	@Test
+	void testNotModifiedIsServedFromCache() throws Exception {
+		HttpHeaders etag = new HttpHeaders();
+		etag.setETag(ETAG);
+
+		server.expect(method(HttpMethod.GET))
+			.andExpect(requestToUriTemplate(GET_BEER_PATH_VAR, beer.getId()))
+			.andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+			.andRespond(withSuccess(mapper.writeValueAsString(beer), MediaType.APPLICATION_JSON).headers(etag));
+		server.expect(method(HttpMethod.GET))
+			.andExpect(requestToUriTemplate(GET_BEER_PATH_VAR, beer.getId()))
+			.andExpect(header(HttpHeaders.IF_NONE_MATCH, ETAG))
+			.andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(etag));
+
+		BeerDTO first = beerClient.findBeerById(beer.getId());
+		BeerDTO second = beerClient.findBeerById(beer.getId());
+
+		server.verify();
+		assertThat(first).isEqualTo(beer);
+		assertThat(second).isEqualTo(beer).isNotSameAs(first);
+		assertThat(beerCache.getMissCount()).isEqualTo(1);
+		assertThat(beerCache.getRevalidationCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testDeleteInvalidatesEntry() throws Exception {
+		server.expect(method(HttpMethod.GET))
+			.andExpect(requestToUriTemplate(GET_BEER_PATH_VAR, beer.getId()))
+			.andRespond(withSuccess(mapper.writeValueAsString(beer), MediaType.APPLICATION_JSON));
+		server.expect(method(HttpMethod.DELETE))
+			.andExpect(requestToUriTemplate(GET_BEER_PATH_VAR, beer.getId()))
+			.andRespond(withNoContent());
+
+		beerClient.findBeerById(beer.getId());
+		beerClient.deleteBeer(beer.getId());
+
+		server.verify();
+		assertThat(beerCache.get(beer.getId())).isNull();
+	}
+
+	@Test
+	void testFetchInFlightDuringInvalidateIsNotCached() throws Exception {
+		String payload = mapper.writeValueAsString(beer);
+		// the beer is updated elsewhere while its old state is on the way back
+		server.expect(method(HttpMethod.GET))
+			.andExpect(requestToUriTemplate(GET_BEER_PATH_VAR, beer.getId()))
+			.andRespond(request -> {
+				beerCache.invalidate(beer.getId());
+				return withSuccess(payload, MediaType.APPLICATION_JSON).createResponse(request);
+			});
+
+		assertThat(beerClient.findBeerById(beer.getId())).isEqualTo(beer);
+
+		server.verify();
+		assertThat(beerCache.get(beer.getId())).isNull();
+	}
+}
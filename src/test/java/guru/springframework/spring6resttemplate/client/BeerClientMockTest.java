@@ -2,6 +2,8 @@ package guru.springframework.spring6resttemplate.client;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.config.AdaptiveConcurrencyLimiter;
+import guru.springframework.spring6resttemplate.config.BeerClientConfig;
 import guru.springframework.spring6resttemplate.config.OAuthClientInterceptor;
 import guru.springframework.spring6resttemplate.config.RestTemplateConfig;
 import guru.springframework.spring6resttemplate.model.BeerDTO;
@@ -13,13 +15,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.boot.test.web.client.RootUriRequestExpectationManager;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.security.oauth2.client.InMemoryOAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
@@ -29,8 +34,11 @@ import org.springframework.security.oauth2.client.registration.ClientRegistratio
 import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.UnorderedRequestExpectationManager;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
@@ -39,6 +47,8 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
 import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
@@ -46,6 +56,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
@@ -53,10 +64,11 @@ import static org.springframework.test.web.client.match.MockRestRequestMatchers.
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withCreatedEntity;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withResourceNotFound;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 @RestClientTest(BeerClientImpl.class)
-@Import(RestTemplateConfig.class)
+@Import({RestTemplateConfig.class, BeerClientConfig.class})
 public class BeerClientMockTest {
 
 	public static final String BEARER_TEST = "Bearer test";
@@ -70,6 +82,12 @@ public class BeerClientMockTest {
 	@Autowired
 	ObjectMapper mapper;
 
+	@Autowired
+	RestTemplate restTemplate;
+
+	@Autowired
+	AdaptiveConcurrencyLimiter concurrencyLimiter;
+
 	static BeerDTO beerDtoWithId;
 	static BeerDTO beerDtoWithoutId;
 
@@ -162,6 +180,116 @@ public class BeerClientMockTest {
 		assertThat(dtos.getContent().size()).isEqualTo(1);
 	}
 
+	@Test
+	@DirtiesContext
+	void testFindAllBeersAcrossPages() throws JsonProcessingException {
+		// pages after the first are fetched concurrently, so they may arrive in any order
+		MockRestServiceServer unorderedServer = RootUriRequestExpectationManager.bindTo(
+			restTemplate, new UnorderedRequestExpectationManager());
+
+		List<BeerDTO> beers = List.of(
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("first").build(),
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("second").build(),
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("third").build());
+
+		for (int page = 0; page < beers.size(); page++) {
+			URI uri = UriComponentsBuilder.fromPath(GET_BEER_PATH)
+				.queryParam("beerStyle", BeerStyle.IPA)
+				.queryParam("pageNumber", page + 1)
+				.queryParam("pageSize", 1)
+				.build().toUri();
+			String payload = mapper.writeValueAsString(
+				new RestResponsePage<>(List.of(beers.get(page)), page, 1, beers.size()));
+
+			unorderedServer.expect(method(HttpMethod.GET))
+				.andExpect(requestTo(uri))
+				.andExpect(header("Authorization", BEARER_TEST))
+				.andRespond(withSuccess(payload, MediaType.APPLICATION_JSON));
+		}
+
+		Page<BeerDTO> all = beerClient.findAllBeersAcrossPages(Map.of("beerStyle", BeerStyle.IPA), 1, 2);
+
+		unorderedServer.verify();
+		assertThat(all.getContent()).extracting(BeerDTO::getBeerName)
+			.containsExactly("first", "second", "third");
+		assertThat(all.getTotalElements()).isEqualTo(3);
+		assertThat(all.getNumber()).isZero();
+		assertThat(all.getSize()).isEqualTo(3);
+		assertThat(all.getTotalPages()).isEqualTo(1);
+	}
+
+	@Test
+	@DirtiesContext
+	void testFindAllBeersAcrossPagesStaysWithinTheConcurrencyLimit() throws JsonProcessingException {
+		MockRestServiceServer unorderedServer = RootUriRequestExpectationManager.bindTo(
+			restTemplate, new UnorderedRequestExpectationManager());
+		// three rounds of slow pages: unclamped, the third round would wait longer than the limiter's max-wait
+		int pages = 3 * concurrencyLimiter.getLimit(GET_BEER_PATH);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+
+		for (int page = 0; page < pages; page++) {
+			String payload = mapper.writeValueAsString(new RestResponsePage<>(
+				List.of(BeerDTO.builder().id(UUID.randomUUID()).beerName("beer " + page).build()), page, 1, pages));
+			unorderedServer.expect(method(HttpMethod.GET))
+				.andRespond(request -> {
+					maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+					try {
+						Thread.sleep(300);
+						return withSuccess(payload, MediaType.APPLICATION_JSON).createResponse(request);
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					} finally {
+						inFlight.decrementAndGet();
+					}
+				});
+		}
+		int limit = concurrencyLimiter.getLimit(GET_BEER_PATH);
+
+		Page<BeerDTO> all = beerClient.findAllBeersAcrossPages(Map.of(), 1, 10 * limit);
+
+		unorderedServer.verify();
+		assertThat(all.getContent()).hasSize(pages);
+		assertThat(maxInFlight.get()).isLessThanOrEqualTo(limit);
+		assertThat(concurrencyLimiter.getRejectedCount(GET_BEER_PATH)).isZero();
+	}
+
+	@Test
+	void testStreamBeers() throws JsonProcessingException {
+		List<BeerDTO> beers = List.of(
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("first").build(),
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("second").build(),
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("third").build());
+
+		for (int page = 0; page < 2; page++) {
+			URI uri = UriComponentsBuilder.fromPath(GET_BEER_PATH)
+				.queryParam("pageSize", 2)
+				.queryParam("pageNumber", page + 1)
+				.build().toUri();
+			String payload = mapper.writeValueAsString(new RestResponsePage<>(
+				beers.subList(page * 2, Math.min(page * 2 + 2, beers.size())), page, 2, beers.size()));
+
+			server.expect(method(HttpMethod.GET))
+				.andExpect(requestTo(uri))
+				.andExpect(header("Authorization", BEARER_TEST))
+				.andRespond(withSuccess(payload, MediaType.APPLICATION_JSON));
+		}
+
+		try (Stream<BeerDTO> stream = beerClient.streamBeers(Map.of("pageSize", 2))) {
+			assertThat(stream.map(BeerDTO::getBeerName)).containsExactly("first", "second", "third");
+		}
+		server.verify();
+	}
+
+	/**
+	 * A client of its own, so the shared one keeps its configured format.
+	 */
+	private BeerClient smileClient() {
+		return new BeerClientImpl(restTemplate, mapper, BeerDTOCache.disabled(), RequestCoalescer.disabled(),
+			BeerCatalogReplica.disabled(), ResilientReadExecutor.disabled(), WriteMode.REPRESENTATION,
+			ContentFormat.SMILE);
+	}
+
 	private RestResponsePage<BeerDTO> getPage(){
 		return new RestResponsePage<>(List.of(beerDtoWithId), 1, 25, 1);
 	}
@@ -189,6 +317,103 @@ public class BeerClientMockTest {
 		assertThat(dto.getId()).isEqualTo(beerDtoWithId.getId());
 	}
 
+	@Test
+	void testCreateBeerUsesReturnedRepresentation() throws Exception {
+		URI uri = UriComponentsBuilder.fromPath(GET_BEER_PATH_VAR).build(beerDtoWithId.getId());
+
+		server.expect(method(HttpMethod.POST))
+			.andExpect(requestTo(GET_BEER_PATH))
+			.andExpect(header("Prefer", "return=representation"))
+			.andExpect(header("Authorization", BEARER_TEST))
+			.andRespond(withCreatedEntity(uri)
+				.body(mapper.writeValueAsString(beerDtoWithId))
+				.contentType(MediaType.APPLICATION_JSON));
+
+		BeerDTO dto = beerClient.createBeer(beerDtoWithoutId);
+
+		server.verify();
+		assertThat(dto.getId()).isEqualTo(beerDtoWithId.getId());
+	}
+
+	@Test
+	void testReadsSmileResponses() throws Exception {
+		ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+		MediaType smile = ContentFormat.SMILE.getMediaType();
+		BeerClient beerClient = smileClient();
+
+		server.expect(method(HttpMethod.GET))
+			.andExpect(requestTo(GET_BEER_PATH))
+			.andExpect(header("Accept", "application/x-jackson-smile, application/json;q=0.5"))
+			.andRespond(withSuccess(smileMapper.writeValueAsBytes(getPage()), smile));
+		server.expect(method(HttpMethod.GET))
+			.andExpect(requestToUriTemplate(GET_BEER_PATH_VAR, beerDtoWithId.getId()))
+			.andRespond(withSuccess(smileMapper.writeValueAsBytes(beerDtoWithId), smile));
+
+		assertThat(beerClient.findAllBeers().getContent()).extracting(BeerDTO::getId)
+			.containsExactly(beerDtoWithId.getId());
+		assertThat(beerClient.findBeerById(beerDtoWithId.getId())).isEqualTo(beerDtoWithId);
+		server.verify();
+	}
+
+	@Test
+	void testFallsBackToJsonBodiesAfterUnsupportedMediaType() throws Exception {
+		BeerClient beerClient = smileClient();
+		server.expect(method(HttpMethod.POST))
+			.andExpect(content().contentType(ContentFormat.SMILE.getMediaType()))
+			.andRespond(withStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE));
+		for (int i = 0; i < 2; i++) {
+			server.expect(method(HttpMethod.POST))
+				.andExpect(requestTo(GET_BEER_PATH))
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(header("Prefer", "return=representation"))
+				.andRespond(withCreatedEntity(UriComponentsBuilder.fromPath(GET_BEER_PATH_VAR).build(beerDtoWithId.getId()))
+					.body(mapper.writeValueAsString(beerDtoWithId))
+					.contentType(MediaType.APPLICATION_JSON));
+		}
+
+		assertThat(beerClient.createBeer(beerDtoWithoutId).getId()).isEqualTo(beerDtoWithId.getId());
+		// later bodies go out as JSON straight away
+		assertThat(beerClient.createBeer(beerDtoWithoutId).getId()).isEqualTo(beerDtoWithId.getId());
+		server.verify();
+	}
+
+	@Test
+	void testUpdateBeerUsesReturnedRepresentation() throws Exception {
+		server.expect(method(HttpMethod.PUT))
+			.andExpect(requestToUriTemplate(GET_BEER_PATH_VAR, beerDtoWithId.getId()))
+			.andExpect(header("Prefer", "return=representation"))
+			.andExpect(header("Authorization", BEARER_TEST))
+			.andRespond(withSuccess(mapper.writeValueAsString(beerDtoWithId), MediaType.APPLICATION_JSON));
+
+		BeerDTO dto = beerClient.updateBeer(beerDtoWithId);
+
+		server.verify();
+		assertThat(dto.getId()).isEqualTo(beerDtoWithId.getId());
+	}
+
+	@Test
+	void testPatchBeerSendsOnlyChangedFields() throws Exception {
+		BeerDTO original = beerDtoWithId.toBuilder().version(3).build();
+		BeerDTO modified = original.toBuilder().quantityOnHand(42).upc(null).build();
+
+		server.expect(method(HttpMethod.PATCH))
+			.andExpect(requestToUriTemplate(GET_BEER_PATH_VAR, original.getId()))
+			.andExpect(header("If-Match", "\"3\""))
+			.andExpect(header("Prefer", "return=representation"))
+			.andExpect(content().contentType(BeerClientImpl.MERGE_PATCH_JSON))
+			.andExpect(content().json("{\"quantityOnHand\":42,\"upc\":null}", true))
+			.andRespond(withSuccess(mapper.writeValueAsString(modified.toBuilder().version(4).build()),
+				MediaType.APPLICATION_JSON));
+
+		BeerDTO patched = beerClient.patchBeer(original.getId(), original, modified);
+
+		server.verify();
+		assertThat(patched.getVersion()).isEqualTo(4);
+		assertThat(patched.getQuantityOnHand()).isEqualTo(42);
+		// nothing changed, nothing sent
+		assertThat(beerClient.patchBeer(original.getId(), original, original.toBuilder().build())).isEqualTo(original);
+	}
+
 	@Test
 	void testUpdateBeer() throws JsonProcessingException {
 		server.expect(method(HttpMethod.PUT))
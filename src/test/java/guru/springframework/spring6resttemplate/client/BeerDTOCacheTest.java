@@ -0,0 +1,95 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerDTOCacheTest {
+
+	@Test
+	void testEvictsLeastRecentlyUsed() {
+		BeerDTOCache cache = new BeerDTOCache(2, Duration.ofMinutes(1), Clock.systemUTC());
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		UUID third = UUID.randomUUID();
+
+		cache.put(first, beer(first), null, -1);
+		cache.put(second, beer(second), null, -1);
+		cache.get(first);
+		cache.put(third, beer(third), null, -1);
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get(first)).isNotNull();
+		assertThat(cache.get(second)).isNull();
+		assertThat(cache.get(third)).isNotNull();
+	}
+
+	@Test
+	void testEntryTurnsStaleAfterTtlButKeepsValidators() {
+		Instant now = Instant.parse("2024-05-01T10:00:00Z");
+		UUID id = UUID.randomUUID();
+		BeerDTOCache cache = new BeerDTOCache(10, Duration.ofSeconds(30), Clock.fixed(now, ZoneOffset.UTC));
+		cache.put(id, beer(id), "\"1\"", -1);
+
+		BeerDTOCache.CachedBeer cached = cache.get(id);
+		assertThat(cache.isFresh(cached)).isTrue();
+
+		BeerDTOCache.CachedBeer aged = new BeerDTOCache.CachedBeer(
+			cached.beer(), cached.etag(), cached.lastModified(), now.minusSeconds(31));
+		assertThat(cache.isFresh(aged)).isFalse();
+		assertThat(aged.etag()).isEqualTo("\"1\"");
+	}
+
+	@Test
+	void testStoresAndHandsOutCopies() {
+		BeerDTOCache cache = new BeerDTOCache(10, Duration.ofMinutes(1), Clock.systemUTC());
+		UUID id = UUID.randomUUID();
+		BeerDTO beer = beer(id);
+
+		cache.put(id, beer, null, -1);
+		beer.setBeerName("changed by caller");
+
+		assertThat(cache.get(id).beer().getBeerName()).isEqualTo("cached");
+	}
+
+	@Test
+	void testReadsStartedBeforeAWriteDoNotOverwriteIt() {
+		BeerDTOCache cache = new BeerDTOCache(10, Duration.ofMinutes(1), Clock.systemUTC());
+		UUID id = UUID.randomUUID();
+		long generation = cache.generation(id);
+
+		BeerDTO written = beer(id);
+		written.setBeerName("written");
+		cache.put(id, written, null, -1);
+		cache.putIfUnchanged(id, generation, beer(id), null, -1);
+		cache.revalidated(id, generation, new BeerDTOCache.CachedBeer(beer(id), null, -1, Instant.now()));
+
+		assertThat(cache.get(id).beer().getBeerName()).isEqualTo("written");
+
+		long current = cache.generation(id);
+		cache.putIfUnchanged(id, current, beer(id), null, -1);
+		assertThat(cache.get(id).beer().getBeerName()).isEqualTo("cached");
+	}
+
+	@Test
+	void testDisabledCacheKeepsNothing() {
+		BeerDTOCache cache = BeerDTOCache.disabled();
+		UUID id = UUID.randomUUID();
+
+		cache.put(id, beer(id), null, -1);
+
+		assertThat(cache.isEnabled()).isFalse();
+		assertThat(cache.get(id)).isNull();
+	}
+
+	private static BeerDTO beer(UUID id) {
+		return BeerDTO.builder().id(id).beerName("cached").build();
+	}
+}
@@ -0,0 +1,53 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerRequestUrisTest {
+
+	DefaultUriBuilderFactory uriTemplateHandler = new DefaultUriBuilderFactory("http://localhost:8080");
+	BeerRequestUris uris = new BeerRequestUris(uriTemplateHandler);
+
+	@Test
+	void testBeerUriMatchesTemplateExpansion() {
+		UUID beerId = UUID.randomUUID();
+
+		assertThat(uris.beer(beerId)).isEqualTo(uriTemplateHandler.expand(GET_BEER_PATH_VAR, beerId));
+		assertThat(uris.beerList(Map.of())).isEqualTo(URI.create("http://localhost:8080" + GET_BEER_PATH));
+	}
+
+	@Test
+	void testBeerListQueryIsEncodedInOrder() {
+		Map<String, Object> parameters = new LinkedHashMap<>();
+		parameters.put("beerName", "Mango Bobs & Sons");
+		parameters.put("beerStyle", BeerStyle.PALE_ALE);
+		parameters.put("pageNumber", 2);
+		parameters.put("pageSize", 50L);
+
+		URI expected = UriComponentsBuilder.fromUriString("http://localhost:8080" + GET_BEER_PATH)
+			.queryParam("beerName", "Mango Bobs & Sons")
+			.queryParam("beerStyle", BeerStyle.PALE_ALE)
+			.queryParam("pageNumber", 2)
+			.queryParam("pageSize", 50)
+			.encode()
+			.build()
+			.toUri();
+
+		assertThat(uris.beerList(parameters)).isEqualTo(expected);
+		assertThat(uris.beerList(parameters).getQuery()).isEqualTo("beerName=Mango Bobs & Sons&beerStyle=PALE_ALE"
+			+ "&pageNumber=2&pageSize=50");
+		assertThat(BeerClientImpl.beerListUri(Map.of("beerName", "Mango Bobs")))
+			.isEqualTo(GET_BEER_PATH + "?beerName=Mango%20Bobs");
+	}
+}
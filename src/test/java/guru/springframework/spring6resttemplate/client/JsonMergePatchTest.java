@@ -0,0 +1,31 @@
+package guru.springframework.spring6resttemplate.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonMergePatchTest {
+
+	ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void testNumbersDifferingOnlyInScaleAreUnchanged() {
+		ObjectNode original = mapper.createObjectNode().put("price", new BigDecimal("12.5"));
+		original.putObject("brewery").put("rating", new BigDecimal("4.0"));
+		original.putArray("prices").add(new BigDecimal("1.5")).add(2);
+		ObjectNode modified = mapper.createObjectNode().put("price", new BigDecimal("12.50"));
+		modified.putObject("brewery").put("rating", 4);
+		modified.putArray("prices").add(new BigDecimal("1.50")).add(new BigDecimal("2.0"));
+
+		assertThat(JsonMergePatch.diff(original, modified).isEmpty()).isTrue();
+
+		modified.put("price", new BigDecimal("12.51"));
+		ObjectNode patch = JsonMergePatch.diff(original, modified);
+		assertThat(patch.size()).isEqualTo(1);
+		assertThat(patch.get("price").decimalValue()).isEqualTo(new BigDecimal("12.51"));
+	}
+}
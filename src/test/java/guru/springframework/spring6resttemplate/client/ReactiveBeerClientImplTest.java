@@ -0,0 +1,107 @@
+package guru.springframework.spring6resttemplate.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.page.RestResponsePage;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.PAGE_SIZE_PARAM;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveBeerClientImplTest {
+
+	ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+	List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+	@Test
+	void testFindAllBeersWalksAllPages() {
+		List<BeerDTO> catalog = catalog(5);
+		ReactiveBeerClient client = client(request -> page(request, catalog));
+
+		List<BeerDTO> beers = client.findAllBeers(Map.of(PAGE_SIZE_PARAM, 2)).collectList().block();
+
+		assertThat(beers).isEqualTo(catalog);
+		assertThat(requests).hasSize(3);
+	}
+
+	@Test
+	void testFollowUpPagesAreOnlyFetchedOnDemand() {
+		List<BeerDTO> catalog = catalog(10);
+		ReactiveBeerClient client = client(request -> page(request, catalog));
+
+		List<BeerDTO> beers = client.findAllBeers(Map.of(PAGE_SIZE_PARAM, 2)).take(3).collectList().block();
+
+		assertThat(beers).isEqualTo(catalog.subList(0, 3));
+		assertThat(requests).hasSize(2);
+	}
+
+	@Test
+	void testCreateBeerUsesReturnedRepresentation() {
+		BeerDTO created = catalog(1).get(0);
+		ReactiveBeerClient client = client(request -> json(HttpStatus.CREATED, created));
+
+		BeerDTO result = client.createBeer(created.toBuilder().id(null).build()).block();
+
+		assertThat(result).isEqualTo(created);
+		assertThat(requests).singleElement().satisfies(request -> {
+			assertThat(request.method()).isEqualTo(HttpMethod.POST);
+			assertThat(request.headers().getFirst(BeerClientImpl.PREFER_HEADER))
+				.isEqualTo(BeerClientImpl.RETURN_REPRESENTATION);
+		});
+	}
+
+	private ReactiveBeerClient client(Function<ClientRequest, ClientResponse> server) {
+		WebClient webClient = WebClient.builder()
+			.baseUrl("http://localhost:8080")
+			.exchangeFunction(request -> {
+				requests.add(request);
+				return Mono.just(server.apply(request));
+			})
+			.build();
+		return new ReactiveBeerClientImpl(webClient, mapper);
+	}
+
+	private ClientResponse page(ClientRequest request, List<BeerDTO> catalog) {
+		Map<String, String> query = UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().toSingleValueMap();
+		int pageNumber = Integer.parseInt(query.get(BeerClientImpl.PAGE_NUMBER_PARAM));
+		int pageSize = Integer.parseInt(query.get(PAGE_SIZE_PARAM));
+		int from = Math.min((pageNumber - 1) * pageSize, catalog.size());
+		List<BeerDTO> content = new ArrayList<>(catalog.subList(from, Math.min(from + pageSize, catalog.size())));
+		return json(HttpStatus.OK, new RestResponsePage<>(content, pageNumber - 1, pageSize, catalog.size()));
+	}
+
+	private ClientResponse json(HttpStatus status, Object body) {
+		try {
+			return ClientResponse.create(status)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(mapper.writeValueAsString(body))
+				.build();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static List<BeerDTO> catalog(int size) {
+		return IntStream.range(0, size)
+			.mapToObj(i -> BeerDTO.builder().id(UUID.randomUUID()).beerName("Beer " + i).build())
+			.toList();
+	}
+}
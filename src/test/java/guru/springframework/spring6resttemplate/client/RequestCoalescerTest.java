@@ -0,0 +1,126 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+class RequestCoalescerTest {
+
+	static final int CALLERS = 8;
+
+	RequestCoalescer coalescer = new RequestCoalescer(true);
+
+	@Test
+	void testConcurrentIdenticalCallsShareOneUpstreamCall() throws Exception {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<BeerDTO> results = runConcurrently(() -> coalescer.execute("GET /beer/1", () -> {
+			upstreamCalls.incrementAndGet();
+			await(release);
+			return BeerDTO.builder().beerName("shared").build();
+		}, BeerDTOCache::copy), release);
+
+		assertThat(upstreamCalls).hasValue(1);
+		assertThat(coalescer.getCoalescedCount()).isEqualTo(CALLERS - 1);
+		assertThat(results).extracting(BeerDTO::getBeerName).containsOnly("shared");
+		Set<BeerDTO> distinctInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+		distinctInstances.addAll(results);
+		assertThat(distinctInstances).hasSize(CALLERS);
+		assertThat(coalescer.getInFlightCount()).isZero();
+	}
+
+	@Test
+	void testFailureIsRethrownToEveryWaiter() throws Exception {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+		try {
+			List<Future<BeerDTO>> calls = new ArrayList<>();
+			for (int i = 0; i < CALLERS; i++) {
+				calls.add(executor.submit(() -> coalescer.<BeerDTO>execute("GET /beer/2", () -> {
+					upstreamCalls.incrementAndGet();
+					await(release);
+					throw new HttpServerErrorException(SERVICE_UNAVAILABLE);
+				}, BeerDTOCache::copy)));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<BeerDTO> call : calls) {
+				try {
+					call.get(5, TimeUnit.SECONDS);
+				} catch (ExecutionException e) {
+					assertThat(e.getCause()).isInstanceOf(HttpServerErrorException.class);
+					continue;
+				}
+				throw new AssertionError("expected every caller to fail");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(upstreamCalls).hasValue(1);
+		assertThat(coalescer.getInFlightCount()).isZero();
+	}
+
+	@Test
+	void testSequentialCallsAreNotCoalesced() {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			coalescer.execute("GET /beer/3", () -> {
+				upstreamCalls.incrementAndGet();
+				return BeerDTO.builder().build();
+			}, BeerDTOCache::copy);
+		}
+
+		assertThat(upstreamCalls).hasValue(3);
+	}
+
+	private static List<BeerDTO> runConcurrently(Supplier<BeerDTO> call, CountDownLatch release) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+		try {
+			List<Future<BeerDTO>> calls = new ArrayList<>();
+			for (int i = 0; i < CALLERS; i++) {
+				calls.add(executor.submit(call::get));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			List<BeerDTO> results = new ArrayList<>();
+			for (Future<BeerDTO> future : calls) {
+				results.add(future.get(5, TimeUnit.SECONDS));
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package guru.springframework.spring6resttemplate.client;
+
+import guru.springframework.spring6resttemplate.client.ResilientReadExecutor.BreakerPolicy;
+import guru.springframework.spring6resttemplate.client.ResilientReadExecutor.CircuitBreakerOpenException;
+import guru.springframework.spring6resttemplate.client.ResilientReadExecutor.CircuitState;
+import guru.springframework.spring6resttemplate.client.ResilientReadExecutor.HedgePolicy;
+import guru.springframework.spring6resttemplate.client.ResilientReadExecutor.RetryPolicy;
+import guru.springframework.spring6resttemplate.config.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientReadExecutorTest {
+
+	BeerCatalogReplicaTest.MutableClock clock = new BeerCatalogReplicaTest.MutableClock(Instant.parse("2024-05-01T12:00:00Z"));
+	ResilientReadExecutor reads = new ResilientReadExecutor(
+		new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(50)),
+		new HedgePolicy(0.95, Duration.ofMillis(20), Duration.ofMillis(20)),
+		new BreakerPolicy(4, 0.5, Duration.ofSeconds(30)),
+		clock);
+
+	static final String ROOT = "http://localhost:8080";
+
+	@AfterEach
+	void tearDown() {
+		reads.close();
+	}
+
+	@Test
+	void testRetriesServerErrorsButNotClientErrors() {
+		AtomicInteger calls = new AtomicInteger();
+		String result = reads.execute(ResilientReadExecutor.FIND_BY_ID, () -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new ResourceAccessException("Connection refused");
+			}
+			if (calls.get() == 2) {
+				throw HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "", HttpHeaders.EMPTY, null, null);
+			}
+			return "beer";
+		});
+
+		assertThat(result).isEqualTo("beer");
+		assertThat(reads.getRetryCount()).isEqualTo(2);
+
+		calls.set(0);
+		assertThatThrownBy(() -> reads.execute(ResilientReadExecutor.FIND_BY_ID, () -> {
+			calls.incrementAndGet();
+			throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "", HttpHeaders.EMPTY, null, null);
+		})).isInstanceOf(HttpClientErrorException.NotFound.class);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void testGivesUpWhenRetryAfterExceedsMaxBackoff() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "60");
+		AtomicInteger calls = new AtomicInteger();
+
+		assertThatThrownBy(() -> reads.execute(ResilientReadExecutor.FIND_ALL, () -> {
+			calls.incrementAndGet();
+			throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", headers, null, null);
+		})).isInstanceOf(HttpClientErrorException.TooManyRequests.class);
+		assertThat(calls).hasValue(1);
+
+		headers.set(HttpHeaders.RETRY_AFTER, "0");
+		HttpClientErrorException tooManyRequests =
+			HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", headers, null, null);
+		assertThat(reads.backoff(1, tooManyRequests)).isLessThanOrEqualTo(Duration.ofMillis(1));
+	}
+
+	@Test
+	void testHedgeAnswersWhenFirstAttemptIsSlow() throws InterruptedException {
+		CountDownLatch slowCancelled = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+
+		String result = reads.execute(ResilientReadExecutor.FIND_BY_ID, () -> {
+			if (calls.incrementAndGet() == 1) {
+				try {
+					Thread.sleep(Duration.ofSeconds(10));
+				} catch (InterruptedException e) {
+					slowCancelled.countDown();
+				}
+				return "slow";
+			}
+			return "hedge";
+		});
+
+		assertThat(result).isEqualTo("hedge");
+		assertThat(reads.getHedgeCount()).isEqualTo(1);
+		assertThat(reads.getHedgeWinCount()).isEqualTo(1);
+		assertThat(slowCancelled.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void testLosingHedgeGivesItsPermitBack() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 0.5,
+			Double.POSITIVE_INFINITY, Duration.ZERO);
+		AtomicInteger requests = new AtomicInteger();
+		// a transport that registers its abort like the pooled one, with a first read that ignores interrupts
+		RestTemplate restTemplate = new RestTemplate((uri, method) -> {
+			CountDownLatch aborted = new CountDownLatch(1);
+			ResilientReadExecutor.registerAbort(aborted::countDown);
+			boolean slow = requests.incrementAndGet() == 1;
+			return new MockClientHttpRequest(method, uri) {
+				@Override
+				protected ClientHttpResponse executeInternal() throws IOException {
+					if (slow) {
+						awaitUninterruptibly(aborted);
+						throw new SocketException("Socket closed");
+					}
+					MockClientHttpResponse response = new MockClientHttpResponse("hedge".getBytes(), HttpStatus.OK);
+					response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+					return response;
+				}
+			};
+		});
+		restTemplate.getInterceptors().add(limiter);
+
+		String result = reads.execute(ResilientReadExecutor.FIND_BY_ID,
+			() -> restTemplate.getForObject(ROOT + GET_BEER_PATH_VAR, String.class, UUID.randomUUID()));
+
+		assertThat(result).isEqualTo("hedge");
+		assertThat(reads.getHedgeWinCount()).isEqualTo(1);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (limiter.getInFlight(GET_BEER_PATH_VAR) > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(limiter.getInFlight(GET_BEER_PATH_VAR)).isZero();
+	}
+
+	@Test
+	void testCircuitOpensAndClosesAfterSuccessfulProbe() {
+		ResilientReadExecutor noRetries = new ResilientReadExecutor(
+			new RetryPolicy(1, Duration.ZERO, Duration.ZERO),
+			new HedgePolicy(0, Duration.ZERO, Duration.ZERO),
+			new BreakerPolicy(4, 0.5, Duration.ofSeconds(30)),
+			clock);
+		AtomicInteger calls = new AtomicInteger();
+
+		noRetries.execute(ResilientReadExecutor.FIND_ALL, () -> "ok");
+		noRetries.execute(ResilientReadExecutor.FIND_ALL, () -> "ok");
+		for (int i = 0; i < 2; i++) {
+			assertThatThrownBy(() -> noRetries.execute(ResilientReadExecutor.FIND_ALL, () -> {
+				throw new ResourceAccessException("Read timed out");
+			})).isInstanceOf(ResourceAccessException.class);
+		}
+
+		assertThat(noRetries.getCircuitState(ResilientReadExecutor.FIND_ALL)).isEqualTo(CircuitState.OPEN);
+		assertThatThrownBy(() -> noRetries.execute(ResilientReadExecutor.FIND_ALL, calls::incrementAndGet))
+			.isInstanceOf(CircuitBreakerOpenException.class);
+		assertThat(calls).hasValue(0);
+		// other operations keep their own breaker
+		assertThat(noRetries.execute(ResilientReadExecutor.FIND_BY_ID, () -> "ok")).isEqualTo("ok");
+
+		clock.advance(Duration.ofSeconds(30));
+		assertThat(noRetries.execute(ResilientReadExecutor.FIND_ALL, calls::incrementAndGet)).isEqualTo(1);
+		assertThat(noRetries.getCircuitState(ResilientReadExecutor.FIND_ALL)).isEqualTo(CircuitState.CLOSED);
+		assertThat(noRetries.getRejectedCount()).isEqualTo(1);
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				latch.await(10, TimeUnit.SECONDS);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package guru.springframework.spring6resttemplate.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	static final MockClientHttpRequest FIND_ALL =
+		new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:8080" + GET_BEER_PATH + "?pageSize=5"));
+	static final MockClientHttpRequest FIND_BY_ID =
+		new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:8080" + GET_BEER_PATH + "/" + UUID.randomUUID()));
+	static final ClientHttpRequestExecution OK = (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+
+	@Test
+	void testFailsFastOverTheLimitPerTemplate() throws IOException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5,
+			Double.POSITIVE_INFINITY, Duration.ZERO);
+
+		ClientHttpResponse first = limiter.intercept(FIND_ALL, new byte[0], OK);
+		limiter.intercept(FIND_ALL, new byte[0], OK);
+
+		assertThatThrownBy(() -> limiter.intercept(FIND_ALL, new byte[0], OK))
+			.isInstanceOf(AdaptiveConcurrencyLimiter.LimitExceededException.class);
+		assertThat(limiter.getInFlight(GET_BEER_PATH)).isEqualTo(2);
+		assertThat(limiter.getRejectedCount(GET_BEER_PATH)).isEqualTo(1);
+		// the other template has a limit of its own
+		limiter.intercept(FIND_BY_ID, new byte[0], OK).close();
+
+		first.close();
+		first.close();
+		assertThat(limiter.getInFlight(GET_BEER_PATH)).isEqualTo(1);
+		limiter.intercept(FIND_ALL, new byte[0], OK).close();
+		assertThat(limiter.getInFlight(GET_BEER_PATH_VAR)).isZero();
+	}
+
+	@Test
+	void testIncreasesAdditivelyAndDecreasesMultiplicatively() throws IOException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5,
+			Double.POSITIVE_INFINITY, Duration.ZERO);
+
+		// grows by 1/limit per answer while at least half of the limit is in use
+		ClientHttpResponse held = limiter.intercept(FIND_BY_ID, new byte[0], OK);
+		for (int i = 0; i < 4; i++) {
+			limiter.intercept(FIND_BY_ID, new byte[0], OK).close();
+		}
+		assertThat(limiter.getLimit(GET_BEER_PATH_VAR)).isEqualTo(3);
+
+		limiter.intercept(FIND_BY_ID, new byte[0],
+			(request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE)).close();
+		assertThat(limiter.getLimit(GET_BEER_PATH_VAR)).isEqualTo(1);
+
+		held.close();
+		assertThatThrownBy(() -> limiter.intercept(FIND_BY_ID, new byte[0], (request, body) -> {
+			throw new IOException("Connection reset");
+		})).isInstanceOf(IOException.class);
+		assertThat(limiter.getLimit(GET_BEER_PATH_VAR)).isEqualTo(1);
+		assertThat(limiter.getInFlight(GET_BEER_PATH_VAR)).isZero();
+	}
+
+	@Test
+	void testQueuesUntilASlotIsReleased() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 0.5,
+			Double.POSITIVE_INFINITY, Duration.ofSeconds(5));
+		ClientHttpResponse first = limiter.intercept(FIND_ALL, new byte[0], OK);
+
+		CompletableFuture<ClientHttpResponse> queued = new CompletableFuture<>();
+		Thread.ofVirtual().start(() -> {
+			try {
+				queued.complete(limiter.intercept(FIND_ALL, new byte[0], OK));
+			} catch (Throwable e) {
+				queued.completeExceptionally(e);
+			}
+		});
+
+		Thread.sleep(50);
+		assertThat(queued).isNotDone();
+		first.close();
+		queued.get(5, TimeUnit.SECONDS).close();
+		assertThat(limiter.getRejectedCount(GET_BEER_PATH)).isZero();
+	}
+}
@@ -0,0 +1,61 @@
+package guru.springframework.spring6resttemplate.config;
+
+import guru.springframework.spring6resttemplate.client.BeerRequestUris;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.anything;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BeerClientMetricsConfigTest {
+
+	static final String ROOT = "http://localhost:8080";
+
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	RestTemplate restTemplate;
+	MockRestServiceServer server;
+
+	@BeforeEach
+	void setUp() {
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+		restTemplate = new RestTemplate();
+		restTemplate.setObservationRegistry(observationRegistry);
+		restTemplate.setObservationConvention(new BeerClientMetricsConfig().beerClientRequestObservationConvention());
+		server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+	}
+
+	@Test
+	void testPrebuiltUrisAreTaggedWithTheirTemplate() {
+		server.expect(ExpectedCount.times(4), anything())
+			.andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+		BeerRequestUris uris = new BeerRequestUris(new DefaultUriBuilderFactory(ROOT));
+
+		restTemplate.getForObject(uris.beer(UUID.randomUUID()), String.class);
+		restTemplate.getForObject(uris.beer(UUID.randomUUID()), String.class);
+		restTemplate.getForObject(uris.beerList(Map.of("beerName", "IPA")), String.class);
+		// expanded paths passed as templates are not series of their own either
+		restTemplate.getForObject(ROOT + GET_BEER_PATH + "?beerStyle=ALE", String.class);
+
+		server.verify();
+		assertThat(meterRegistry.get("http.client.requests").tag("uri", GET_BEER_PATH_VAR).timer().count())
+			.isEqualTo(2);
+		assertThat(meterRegistry.get("http.client.requests").tag("uri", GET_BEER_PATH).timer().count())
+			.isEqualTo(2);
+		assertThat(meterRegistry.find("http.client.requests").tag("uri", "none").timer()).isNull();
+	}
+}
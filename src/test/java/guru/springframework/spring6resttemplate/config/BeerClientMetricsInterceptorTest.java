@@ -0,0 +1,85 @@
+package guru.springframework.spring6resttemplate.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.BATCH_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+import static guru.springframework.spring6resttemplate.config.BeerClientMetricsInterceptor.FIRST_CALL_METRIC;
+import static guru.springframework.spring6resttemplate.config.BeerClientMetricsInterceptor.REQUESTS_METRIC;
+import static guru.springframework.spring6resttemplate.config.BeerClientMetricsInterceptor.RESPONSE_SIZE_METRIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withResourceNotFound;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BeerClientMetricsInterceptorTest {
+
+	static final String ROOT = "http://localhost:8080";
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	RestTemplate restTemplate;
+	MockRestServiceServer server;
+
+	@BeforeEach
+	void setUp() {
+		restTemplate = new RestTemplate();
+		restTemplate.getInterceptors().add(new BeerClientMetricsInterceptor(registry));
+		server = MockRestServiceServer.bindTo(restTemplate).build();
+	}
+
+	@Test
+	void testQueriesShareTheTemplateTag() {
+		String payload = "{\"content\":[]}";
+		server.expect(method(HttpMethod.GET)).andRespond(withSuccess(payload, MediaType.APPLICATION_JSON));
+		server.expect(method(HttpMethod.GET)).andRespond(withSuccess(payload, MediaType.APPLICATION_JSON));
+
+		restTemplate.getForObject(ROOT + GET_BEER_PATH + "?beerName=IPA", String.class);
+		restTemplate.getForObject(ROOT + GET_BEER_PATH + "?beerName=Lager&pageNumber=2", String.class);
+
+		assertThat(registry.get(REQUESTS_METRIC)
+			.tags("operation", "findAll", "uri", GET_BEER_PATH, "status", "200", "outcome", "SUCCESS")
+			.timer().count()).isEqualTo(2);
+		assertThat(registry.get(REQUESTS_METRIC).timers()).hasSize(1);
+		assertThat(registry.get(RESPONSE_SIZE_METRIC).tags("operation", "findAll")
+			.summary().totalAmount()).isEqualTo(2.0 * payload.length());
+	}
+
+	@Test
+	void testOperationsAreTaggedByTemplate() {
+		server.expect(method(HttpMethod.GET)).andRespond(withResourceNotFound());
+		server.expect(method(HttpMethod.DELETE)).andRespond(withNoContent());
+		server.expect(method(HttpMethod.POST)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+		assertThrows(HttpClientErrorException.class,
+			() -> restTemplate.getForObject(ROOT + GET_BEER_PATH_VAR, String.class, UUID.randomUUID()));
+		// only a successful exchange counts as the first call
+		assertThat(registry.find(FIRST_CALL_METRIC).timeGauge()).isNull();
+		restTemplate.delete(ROOT + GET_BEER_PATH_VAR, UUID.randomUUID());
+		assertThat(registry.get(FIRST_CALL_METRIC).timeGauge().value()).isPositive();
+		restTemplate.postForObject(ROOT + BATCH_BEER_PATH, List.of(), String.class);
+
+		assertThat(registry.get(REQUESTS_METRIC)
+			.tags("operation", "findById", "uri", GET_BEER_PATH_VAR, "status", "404", "outcome", "CLIENT_ERROR")
+			.timer().count()).isEqualTo(1);
+		assertThat(registry.get(REQUESTS_METRIC)
+			.tags("operation", "delete", "uri", GET_BEER_PATH_VAR, "method", "DELETE")
+			.timer().count()).isEqualTo(1);
+		// the batch path is not a beer id
+		assertThat(registry.get(REQUESTS_METRIC)
+			.tags("operation", "createBatch", "uri", BATCH_BEER_PATH, "method", "POST")
+			.timer().count()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,34 @@
+package guru.springframework.spring6resttemplate.config;
+
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import guru.springframework.spring6resttemplate.page.RestResponsePage;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerClientRuntimeHintsTest {
+
+	@Test
+	void testRegistersReflectionForBoundTypes() throws Exception {
+		RuntimeHints hints = new RuntimeHints();
+		new BeerClientRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertThat(RuntimeHintsPredicates.reflection().onConstructor(
+			RestResponsePage.class.getConstructor(List.class, int.class, int.class, long.class)).invoke()).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onMethod(
+			BeerDTO.BeerDTOBuilder.class.getMethod("build")).invoke()).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onMethod(
+			BeerStyle.class.getMethod("valueOf", String.class)).invoke()).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(
+			BeerDTO.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+			.accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onConstructor(
+			TokenRefreshingRestTemplate.class.getConstructor()).invoke()).accepts(hints);
+	}
+}
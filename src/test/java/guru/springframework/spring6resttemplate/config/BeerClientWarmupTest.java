@@ -0,0 +1,73 @@
+package guru.springframework.spring6resttemplate.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import guru.springframework.spring6resttemplate.page.RestResponsePage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BeerClientWarmupTest {
+
+	OAuthClientInterceptor oAuthClientInterceptor = mock(OAuthClientInterceptor.class);
+	RestTemplate restTemplate;
+	MockRestServiceServer server;
+
+	@BeforeEach
+	void setUp() {
+		restTemplate = new RestTemplate();
+		server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+	}
+
+	@Test
+	void testFetchesTokenAndOpensConnections() {
+		server.expect(ExpectedCount.times(3), requestTo(GET_BEER_PATH + "?pageSize=1"))
+			.andExpect(method(HttpMethod.GET))
+			.andRespond(withSuccess("{\"content\":[]}", MediaType.APPLICATION_JSON));
+
+		assertThat(new BeerClientWarmup(restTemplate, oAuthClientInterceptor, 3).warmUp()).isTrue();
+
+		server.verify();
+		verify(oAuthClientInterceptor).prefetchToken();
+	}
+
+	@Test
+	void testFailedWarmupDoesNotThrow() {
+		doThrow(new IllegalStateException("Missing credentials")).when(oAuthClientInterceptor).prefetchToken();
+
+		assertThat(new BeerClientWarmup(restTemplate, oAuthClientInterceptor, 3).warmUp()).isFalse();
+
+		server.verify();
+	}
+
+	@Test
+	void testPrimedMappersStillBindPages() throws Exception {
+		BeerClientWarmup.primeJackson(restTemplate);
+		ObjectMapper mapper = restTemplate.getMessageConverters().stream()
+			.filter(MappingJackson2HttpMessageConverter.class::isInstance)
+			.map(converter -> ((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+			.findFirst()
+			.orElseThrow();
+
+		RestResponsePage<BeerDTO> page = mapper.readValue(
+			"{\"content\":[{\"beerName\":\"Mango Bobs\",\"beerStyle\":\"IPA\"}],\"number\":0,\"size\":1,\"totalElements\":1}",
+			mapper.getTypeFactory().constructParametricType(RestResponsePage.class, BeerDTO.class));
+
+		assertThat(page.getContent()).extracting(BeerDTO::getBeerStyle).containsExactly(BeerStyle.IPA);
+	}
+}
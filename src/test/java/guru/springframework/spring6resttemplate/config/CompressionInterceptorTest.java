@@ -0,0 +1,121 @@
+package guru.springframework.spring6resttemplate.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH_VAR;
+import static guru.springframework.spring6resttemplate.config.CompressionInterceptor.COMPRESSED_SIZE_METRIC;
+import static guru.springframework.spring6resttemplate.config.CompressionInterceptor.RATIO_METRIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class CompressionInterceptorTest {
+
+	static final String ROOT = "http://localhost:8080";
+	static final String PAYLOAD = "{\"content\":[" + "{\"beerName\":\"Mango Bobs\",\"beerStyle\":\"IPA\"},".repeat(50)
+		+ "{}],\"number\":0}";
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	RestTemplate restTemplate;
+	MockRestServiceServer server;
+
+	@BeforeEach
+	void setUp() {
+		restTemplate = new RestTemplate();
+		restTemplate.getInterceptors().add(new CompressionInterceptor(registry, 1024));
+		server = MockRestServiceServer.bindTo(restTemplate).build();
+	}
+
+	@Test
+	void testDecodesGzipAndDeflateResponses() throws IOException {
+		byte[] gzip = gzip(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+		server.expect(method(HttpMethod.GET))
+			.andExpect(header(HttpHeaders.ACCEPT_ENCODING, CompressionInterceptor.ACCEPT_ENCODING))
+			.andRespond(withSuccess(gzip, MediaType.APPLICATION_JSON).header(HttpHeaders.CONTENT_ENCODING, "gzip"));
+		for (boolean raw : new boolean[] {false, true}) {
+			server.expect(method(HttpMethod.GET))
+				.andRespond(withSuccess(deflate(PAYLOAD.getBytes(StandardCharsets.UTF_8), raw), MediaType.APPLICATION_JSON)
+					.header(HttpHeaders.CONTENT_ENCODING, "deflate"));
+		}
+
+		assertThat(restTemplate.getForObject(ROOT + GET_BEER_PATH, String.class)).isEqualTo(PAYLOAD);
+		assertThat(restTemplate.getForObject(ROOT + GET_BEER_PATH, String.class)).isEqualTo(PAYLOAD);
+		assertThat(restTemplate.getForObject(ROOT + GET_BEER_PATH, String.class)).isEqualTo(PAYLOAD);
+
+		assertThat(registry.get(COMPRESSED_SIZE_METRIC)
+			.tags("operation", "findAll", "direction", "response", "encoding", "gzip")
+			.summary().totalAmount()).isEqualTo(gzip.length);
+		assertThat(registry.get(RATIO_METRIC).tags("encoding", "gzip").summary().mean())
+			.isEqualTo((double) PAYLOAD.length() / gzip.length);
+		assertThat(registry.get(RATIO_METRIC).tags("encoding", "deflate").summary().count()).isEqualTo(2);
+	}
+
+	@Test
+	void testCompressesRequestBodiesAboveThreshold() {
+		HttpHeaders json = new HttpHeaders();
+		json.setContentType(MediaType.APPLICATION_JSON);
+		server.expect(method(HttpMethod.POST))
+			.andExpect(header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andExpect(request -> assertThat(gunzip(((MockClientHttpRequest) request).getBodyAsBytes()))
+				.isEqualTo(PAYLOAD))
+			.andRespond(withSuccess());
+		server.expect(method(HttpMethod.PUT))
+			.andExpect(headerDoesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andRespond(withNoContent().header(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+		restTemplate.postForObject(ROOT + GET_BEER_PATH, new HttpEntity<>(PAYLOAD, json), String.class);
+		restTemplate.put(ROOT + GET_BEER_PATH_VAR, new HttpEntity<>("{\"beerName\":\"small\"}", json), UUID.randomUUID());
+
+		server.verify();
+		assertThat(registry.get(RATIO_METRIC).tags("operation", "create", "direction", "request")
+			.summary().count()).isEqualTo(1);
+		assertThat(registry.find(RATIO_METRIC).tags("direction", "response").summary()).isNull();
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] deflate(byte[] bytes, boolean raw) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+			deflate.write(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static String gunzip(byte[] bytes) throws IOException {
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package guru.springframework.spring6resttemplate.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OAuthClientInterceptorTest {
+
+	ClientRegistration clientRegistration = ClientRegistration
+		.withRegistrationId("springauth")
+		.authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+		.clientId("test")
+		.tokenUri("test")
+		.build();
+
+	OAuth2AuthorizedClientManager manager = mock(OAuth2AuthorizedClientManager.class);
+	OAuth2AuthorizedClientService authorizedClientService = mock(OAuth2AuthorizedClientService.class);
+
+	OAuthClientInterceptor interceptor;
+
+	@BeforeEach
+	void setUp() {
+		interceptor = createInterceptor(OAuthClientInterceptor.DEFAULT_REFRESH_BEFORE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		interceptor.destroy();
+	}
+
+	@Test
+	void testTokenIsFetchedOnceForManyRequests() throws Exception {
+		when(manager.authorize(any())).thenReturn(client("first", Instant.now().plusSeconds(3600)));
+
+		for (int i = 0; i < 5; i++) {
+			MockClientHttpRequest request = request();
+			interceptor.intercept(request, new byte[0], respondWith(HttpStatus.OK));
+			assertThat(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer first");
+		}
+
+		verify(manager, times(1)).authorize(any());
+	}
+
+	@Test
+	void testConcurrentCallersShareOneTokenFetch() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		when(manager.authorize(any())).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return client("shared", Instant.now().plusSeconds(3600));
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> calls = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				calls.add(executor.submit(() ->
+					interceptor.intercept(request(), new byte[0], respondWith(HttpStatus.OK))));
+			}
+			Thread.sleep(100);
+			release.countDown();
+			for (Future<?> call : calls) {
+				call.get(5, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		verify(manager, times(1)).authorize(any());
+	}
+
+	@Test
+	void testUnauthorizedInvalidatesToken() throws Exception {
+		when(manager.authorize(any()))
+			.thenReturn(client("stale", Instant.now().plusSeconds(3600)))
+			.thenReturn(client("fresh", Instant.now().plusSeconds(3600)));
+
+		List<String> sentTokens = new ArrayList<>();
+		ClientHttpRequestExecution execution = (request, body) -> {
+			sentTokens.add(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+			return new MockClientHttpResponse(new byte[0],
+				sentTokens.size() == 1 ? HttpStatus.UNAUTHORIZED : HttpStatus.OK);
+		};
+
+		// the 401 is handed back for TokenRefreshingRestTemplate to repeat the exchange
+		assertThat(interceptor.intercept(request(), new byte[0], execution).getStatusCode())
+			.isEqualTo(HttpStatus.UNAUTHORIZED);
+		verify(authorizedClientService).removeAuthorizedClient(eq("springauth"), eq("test"));
+
+		assertThat(interceptor.intercept(request(), new byte[0], execution).getStatusCode())
+			.isEqualTo(HttpStatus.OK);
+		assertThat(sentTokens).containsExactly("Bearer stale", "Bearer fresh");
+	}
+
+	@Test
+	void testTokenIsRefreshedAheadOfExpiry() throws Exception {
+		interceptor.destroy();
+		interceptor = createInterceptor(Duration.ofMillis(500));
+		when(manager.authorize(any()))
+			.thenReturn(client("expiring", Instant.now().plusMillis(1500)))
+			.thenReturn(client("renewed", Instant.now().plusSeconds(3600)));
+
+		MockClientHttpRequest first = request();
+		interceptor.intercept(first, new byte[0], respondWith(HttpStatus.OK));
+		MockClientHttpRequest second = request();
+		interceptor.intercept(second, new byte[0], respondWith(HttpStatus.OK));
+		assertThat(first.getHeaders().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer expiring");
+		assertThat(second.getHeaders().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer expiring");
+
+		verify(manager, timeout(2000).times(2)).authorize(any());
+		String renewed = null;
+		for (int attempt = 0; attempt < 50 && !"Bearer renewed".equals(renewed); attempt++) {
+			Thread.sleep(20);
+			MockClientHttpRequest next = request();
+			interceptor.intercept(next, new byte[0], respondWith(HttpStatus.OK));
+			renewed = next.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		}
+		assertThat(renewed).isEqualTo("Bearer renewed");
+	}
+
+	@Test
+	void testShortLivedTokensAreNotRefreshedOnEveryCall() throws Exception {
+		// tokens that live for less than the refresh window are refreshed half way through their lifetime
+		AtomicInteger fetches = new AtomicInteger();
+		when(manager.authorize(any())).thenAnswer(invocation ->
+			client("short-" + fetches.incrementAndGet(), Instant.now().plusSeconds(2)));
+
+		for (int i = 0; i < 50; i++) {
+			interceptor.intercept(request(), new byte[0], respondWith(HttpStatus.OK));
+		}
+		verify(manager, times(1)).authorize(any());
+
+		verify(manager, timeout(2000).times(2)).authorize(any());
+		MockClientHttpRequest next = request();
+		for (int i = 0; i < 50; i++) {
+			next = request();
+			interceptor.intercept(next, new byte[0], respondWith(HttpStatus.OK));
+		}
+		assertThat(next.getHeaders().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer short-2");
+		verify(manager, times(2)).authorize(any());
+	}
+
+	private OAuthClientInterceptor createInterceptor(Duration refreshBefore) {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("authorizedClientService", authorizedClientService);
+		return new OAuthClientInterceptor(manager, new InMemoryClientRegistrationRepository(clientRegistration),
+			beanFactory.getBeanProvider(OAuth2AuthorizedClientService.class), refreshBefore,
+			beanFactory.getBeanProvider(ObservationRegistry.class));
+	}
+
+	private OAuth2AuthorizedClient client(String tokenValue, Instant expiresAt) {
+		OAuth2AccessToken token = new OAuth2AccessToken(
+			OAuth2AccessToken.TokenType.BEARER, tokenValue, Instant.now(), expiresAt);
+		return new OAuth2AuthorizedClient(clientRegistration, "test", token);
+	}
+
+	private static MockClientHttpRequest request() {
+		return new MockClientHttpRequest(HttpMethod.GET, URI.create("/api/v1/beer"));
+	}
+
+	private static ClientHttpRequestExecution respondWith(HttpStatus status) {
+		return (HttpRequest request, byte[] body) -> new MockClientHttpResponse(new byte[0], status);
+	}
+}
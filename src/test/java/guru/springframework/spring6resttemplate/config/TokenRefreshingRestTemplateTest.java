@@ -0,0 +1,197 @@
+package guru.springframework.spring6resttemplate.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.RequestMatcher;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static guru.springframework.spring6resttemplate.client.BeerClientImpl.GET_BEER_PATH;
+import static guru.springframework.spring6resttemplate.config.BeerClientMetricsInterceptor.REQUESTS_METRIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withUnauthorizedRequest;
+
+class TokenRefreshingRestTemplateTest {
+
+	static final String ROOT = "http://localhost:8080";
+	static final String PAYLOAD = "[" + "{\"beerName\":\"Mango Bobs\",\"beerStyle\":\"IPA\"},".repeat(50) + "{}]";
+
+	ClientRegistration clientRegistration = ClientRegistration
+		.withRegistrationId("springauth")
+		.authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+		.clientId("test")
+		.tokenUri("test")
+		.build();
+
+	OAuth2AuthorizedClientManager manager = mock(OAuth2AuthorizedClientManager.class);
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 0.5,
+		Double.POSITIVE_INFINITY, Duration.ZERO);
+
+	OAuthClientInterceptor oAuthClientInterceptor;
+	RestTemplate restTemplate;
+	MockRestServiceServer server;
+
+	@BeforeEach
+	void setUp() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		oAuthClientInterceptor = new OAuthClientInterceptor(manager,
+			new InMemoryClientRegistrationRepository(clientRegistration),
+			beanFactory.getBeanProvider(OAuth2AuthorizedClientService.class), OAuthClientInterceptor.DEFAULT_REFRESH_BEFORE,
+			beanFactory.getBeanProvider(ObservationRegistry.class));
+		// the interceptors in the order RestTemplateConfig registers them
+		restTemplate = new RestTemplateBuilder()
+			.additionalInterceptors(oAuthClientInterceptor, limiter,
+				new BeerClientMetricsInterceptor(registry),
+				new CompressionInterceptor(registry, 0))
+			.build(TokenRefreshingRestTemplate.class);
+		server = MockRestServiceServer.bindTo(restTemplate).build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		oAuthClientInterceptor.destroy();
+	}
+
+	@Test
+	void testRepeatsCompressedPostWithFreshToken() throws IOException {
+		when(manager.authorize(any()))
+			.thenReturn(client("stale"))
+			.thenReturn(client("fresh"));
+		server.expect(requestTo(ROOT + GET_BEER_PATH))
+			.andExpect(method(HttpMethod.POST))
+			.andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer stale"))
+			.andExpect(gzippedPayload())
+			.andRespond(withUnauthorizedRequest());
+		server.expect(requestTo(ROOT + GET_BEER_PATH))
+			.andExpect(method(HttpMethod.POST))
+			.andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer fresh"))
+			.andExpect(gzippedPayload())
+			.andRespond(withSuccess(gzip(PAYLOAD.getBytes(StandardCharsets.UTF_8)), MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+		String response = restTemplate.postForObject(ROOT + GET_BEER_PATH, json(PAYLOAD), String.class);
+
+		server.verify();
+		assertThat(response).isEqualTo(PAYLOAD);
+	}
+
+	@Test
+	void testRepeatIsLimitedAndTimedLikeAnyRequest() {
+		when(manager.authorize(any()))
+			.thenReturn(client("stale"))
+			.thenReturn(client("fresh"));
+		// with a limit of one, the repeat only gets through once the 401 gave its permit back
+		server.expect(method(HttpMethod.GET)).andRespond(inFlight(withUnauthorizedRequest()));
+		server.expect(method(HttpMethod.GET)).andRespond(inFlight(withSuccess("[]", MediaType.APPLICATION_JSON)));
+
+		restTemplate.getForObject(ROOT + GET_BEER_PATH, String.class);
+
+		server.verify();
+		assertThat(limiter.getInFlight(GET_BEER_PATH)).isZero();
+		assertThat(limiter.getRejectedCount(GET_BEER_PATH)).isZero();
+		assertThat(registry.get(REQUESTS_METRIC).tags("operation", "findAll", "status", "401")
+			.timer().count()).isEqualTo(1);
+		assertThat(registry.get(REQUESTS_METRIC).tags("operation", "findAll", "status", "200")
+			.timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void testRepeatsOnlyOnce() {
+		when(manager.authorize(any()))
+			.thenReturn(client("stale"))
+			.thenReturn(client("revoked"));
+		server.expect(method(HttpMethod.POST)).andRespond(withUnauthorizedRequest());
+		server.expect(method(HttpMethod.POST)).andRespond(withUnauthorizedRequest());
+
+		assertThatThrownBy(() -> restTemplate.postForObject(ROOT + GET_BEER_PATH, json(PAYLOAD), String.class))
+			.isInstanceOf(HttpClientErrorException.Unauthorized.class);
+		server.verify();
+	}
+
+	/**
+	 * Asserts that the attempt being answered holds a permit of the limiter.
+	 */
+	private ResponseCreator inFlight(ResponseCreator response) {
+		return request -> {
+			assertThat(limiter.getInFlight(GET_BEER_PATH)).isEqualTo(1);
+			return response.createResponse(request);
+		};
+	}
+
+	/**
+	 * Every attempt has to carry a body that decodes to the payload, with the length of what is actually sent.
+	 */
+	private static RequestMatcher gzippedPayload() {
+		return request -> {
+			byte[] sent = ((MockClientHttpRequest) request).getBodyAsBytes();
+			assertThat(request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+			assertThat(request.getHeaders().getContentLength()).isEqualTo(sent.length);
+			assertThat(gunzip(sent)).isEqualTo(PAYLOAD);
+		};
+	}
+
+	private static HttpEntity<String> json(String body) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		return new HttpEntity<>(body, headers);
+	}
+
+	private OAuth2AuthorizedClient client(String tokenValue) {
+		OAuth2AccessToken token = new OAuth2AccessToken(
+			OAuth2AccessToken.TokenType.BEARER, tokenValue, Instant.now(), Instant.now().plusSeconds(3600));
+		return new OAuth2AuthorizedClient(clientRegistration, "test", token);
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static String gunzip(byte[] bytes) throws IOException {
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package guru.springframework.spring6resttemplate.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.client.BeerClient;
+import guru.springframework.spring6resttemplate.client.BeerClientImpl;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.page.PageMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BeerExporterTest {
+
+	static final int CATALOG = 25;
+	static final int PAGE_SIZE = 10;
+
+	ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+	BeerClient beerClient = mock(BeerClient.class);
+	BeerExporter exporter = new BeerExporter(beerClient, mapper, PAGE_SIZE, 64);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testExportsEveryPageAsNdjson() throws Exception {
+		when(beerClient.forEachBeer(anyMap(), any())).thenAnswer(catalogPage());
+		Path file = directory.resolve("beers.ndjson");
+
+		BeerExportResult result = exporter.exportCatalog(file);
+
+		assertThat(result.beers()).isEqualTo(CATALOG);
+		assertThat(result.pages()).isEqualTo(3);
+		assertThat(result.resumed()).isFalse();
+		assertThat(result.bytes()).isEqualTo(Files.size(file));
+		assertThat(beerNames(Files.readAllLines(file))).containsExactlyElementsOf(expectedNames());
+		assertThat(ExportCheckpoint.pathFor(file)).doesNotExist();
+	}
+
+	@Test
+	void testResumesGzipExportAfterLastCheckpoint() throws Exception {
+		Answer<PageMetadata> catalog = catalogPage();
+		when(beerClient.forEachBeer(anyMap(), any())).thenAnswer(invocation -> {
+			if (page(invocation.getArgument(0)) == 2) {
+				// half of the last page is written before the connection drops
+				catalog.answer(invocation);
+				throw new ResourceAccessException("Connection reset");
+			}
+			return catalog.answer(invocation);
+		});
+		Path file = directory.resolve("beers.ndjson.gz");
+
+		assertThatThrownBy(() -> exporter.exportCatalog(file)).isInstanceOf(ResourceAccessException.class);
+		assertThat(ExportCheckpoint.read(ExportCheckpoint.pathFor(file), mapper).lastPage()).isEqualTo(1);
+
+		clearInvocations(beerClient);
+		// doAnswer, since when(...) would call the failing answer stubbed above
+		doAnswer(catalog).when(beerClient).forEachBeer(anyMap(), any());
+		BeerExportResult result = exporter.exportCatalog(file);
+
+		assertThat(result.resumedAfterPage()).isEqualTo(1);
+		assertThat(result.beers()).isEqualTo(CATALOG);
+		verify(beerClient, times(1)).forEachBeer(anyMap(), any());
+		verify(beerClient, never()).forEachBeer(argThat(parameters -> page(parameters) < 2), any());
+		assertThat(beerNames(gunzip(file))).containsExactlyElementsOf(expectedNames());
+	}
+
+	@Test
+	void testStartsOverWhenFileDoesNotMatchCheckpoint() throws Exception {
+		when(beerClient.forEachBeer(anyMap(), any())).thenAnswer(catalogPage());
+		Path file = directory.resolve("beers.ndjson");
+		exporter.exportCatalog(file);
+		// an interrupted run with a file that was modified afterwards
+		new ExportCheckpoint(BeerClientImpl.beerListUri(Map.of()), 0, PAGE_SIZE, false, PAGE_SIZE, 100, "0".repeat(64))
+			.write(ExportCheckpoint.pathFor(file), mapper);
+		clearInvocations(beerClient);
+
+		BeerExportResult result = exporter.exportCatalog(file);
+
+		assertThat(result.resumed()).isFalse();
+		verify(beerClient, times(3)).forEachBeer(anyMap(), any());
+		assertThat(beerNames(Files.readAllLines(file))).containsExactlyElementsOf(expectedNames());
+	}
+
+	private static Answer<PageMetadata> catalogPage() {
+		return invocation -> {
+			int page = page(invocation.getArgument(0));
+			Consumer<? super BeerDTO> consumer = invocation.getArgument(1);
+			int first = page * PAGE_SIZE;
+			int last = Math.min(first + PAGE_SIZE, CATALOG);
+			for (int i = first; i < last; i++) {
+				consumer.accept(BeerDTO.builder().beerName("Beer " + i).upc(String.valueOf(i)).build());
+			}
+			return new PageMetadata(page, PAGE_SIZE, CATALOG, Math.max(0, last - first));
+		};
+	}
+
+	private static int page(Map<String, Object> parameters) {
+		return (Integer) parameters.get(BeerClientImpl.PAGE_NUMBER_PARAM) - 1;
+	}
+
+	private List<String> beerNames(List<String> lines) {
+		return lines.stream().map(line -> {
+			try {
+				return mapper.readValue(line, BeerDTO.class).getBeerName();
+			} catch (IOException e) {
+				throw new IllegalStateException(line, e);
+			}
+		}).toList();
+	}
+
+	private static List<String> gunzip(Path file) throws IOException {
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+		}
+	}
+
+	private static List<String> expectedNames() {
+		return IntStream.range(0, CATALOG).mapToObj(i -> "Beer " + i).toList();
+	}
+}
@@ -0,0 +1,147 @@
+package guru.springframework.spring6resttemplate.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.client.BeerClient;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BeerImporterTest {
+
+	ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+	BeerClient beerClient = mock(BeerClient.class);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testBatchesRowsAndReportsInvalidOnes() throws Exception {
+		when(beerClient.createBeers(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		Path file = directory.resolve("beers.ndjson");
+		Files.writeString(file, IntStream.range(0, 25)
+			.mapToObj(i -> i == 7 ? "{not json" : i == 12 ? "{\"beerName\":\"no style\"}" : beerJson(i))
+			.collect(Collectors.joining("\n")));
+
+		List<ImportProgress> progress = new ArrayList<>();
+		BeerImportResult result = importer(10).importFile(file, progress::add);
+
+		assertThat(result.rowsRead()).isEqualTo(25);
+		assertThat(result.imported()).isEqualTo(23);
+		assertThat(result.usedBatchEndpoint()).isTrue();
+		assertThat(result.failures()).extracting(BeerImportResult.RowFailure::row).containsExactly(8L, 13L);
+		assertThat(progress).last().satisfies(last -> assertThat(last.imported() + last.failed()).isEqualTo(25));
+		verify(beerClient, times(3)).createBeers(anyList());
+		verify(beerClient, never()).createBeer(any());
+	}
+
+	@Test
+	void testFallsBackToSingleCreatesWithoutBatchEndpoint() throws Exception {
+		when(beerClient.createBeers(anyList())).thenThrow(
+			HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, null, null));
+		when(beerClient.createBeer(any())).thenAnswer(invocation ->
+			((BeerDTO) invocation.getArgument(0)).toBuilder().id(UUID.randomUUID()).build());
+		Path file = directory.resolve("beers.csv");
+		Files.writeString(file, "beerName,beerStyle,upc,quantityOnHand,price\n"
+			+ IntStream.range(0, 30).mapToObj(i -> "Beer " + i + ",ALE," + (1000 + i) + ",5,9.99")
+			.collect(Collectors.joining("\n")));
+
+		BeerImportResult result = importer(10).importFile(file);
+
+		assertThat(result.imported()).isEqualTo(30);
+		assertThat(result.hasFailures()).isFalse();
+		assertThat(result.usedBatchEndpoint()).isFalse();
+		verify(beerClient, atLeastOnce()).createBeers(anyList());
+		verify(beerClient, times(30)).createBeer(any());
+	}
+
+	@Test
+	void testRejectedBatchIsRetriedRowByRow() throws Exception {
+		when(beerClient.createBeers(anyList())).thenThrow(
+			HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY, null, null));
+		when(beerClient.createBeer(any())).thenAnswer(invocation -> {
+			BeerDTO beer = invocation.getArgument(0);
+			if (beer.getBeerName().equals("Beer 3")) {
+				throw HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY, null, null);
+			}
+			return beer;
+		});
+
+		BeerImportResult result = importer(10).importFile(ndjson(5));
+
+		assertThat(result.imported()).isEqualTo(4);
+		assertThat(result.failures()).extracting(BeerImportResult.RowFailure::row).containsExactly(4L);
+		verify(beerClient, times(5)).createBeer(any());
+	}
+
+	@Test
+	void testFailedBatchIsNotReplayed() throws Exception {
+		when(beerClient.createBeers(anyList()))
+			.thenThrow(HttpServerErrorException.create(
+				HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", HttpHeaders.EMPTY, null, null))
+			.thenThrow(new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out")));
+
+		BeerImportResult result = importer(5).importFile(ndjson(10));
+
+		// either batch may have been stored before the error, sending its rows again could duplicate them
+		assertThat(result.imported()).isZero();
+		assertThat(result.failed()).isEqualTo(10);
+		verify(beerClient, times(2)).createBeers(anyList());
+		verify(beerClient, never()).createBeer(any());
+	}
+
+	@Test
+	void testCsvConversionErrorsFailOnlyTheirRow() throws Exception {
+		when(beerClient.createBeer(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		Path file = directory.resolve("beers.csv");
+		Files.writeString(file, """
+			beerName,beerStyle,upc,quantityOnHand,price
+			Good,ALE,1,5,9.99
+			Bad style,NOT_A_STYLE,2,5,9.99
+			Bad price,IPA,3,5,cheap
+			""");
+
+		BeerImportResult result = importer(1).importFile(file);
+
+		assertThat(result.imported()).isEqualTo(1);
+		assertThat(result.failures()).extracting(BeerImportResult.RowFailure::row).containsExactly(2L, 3L);
+	}
+
+	private BeerImporter importer(int batchSize) {
+		return new BeerImporter(beerClient, mapper, 4, batchSize, 100, 5);
+	}
+
+	private Path ndjson(int rows) throws Exception {
+		Path file = directory.resolve("beers.ndjson");
+		Files.writeString(file, IntStream.range(0, rows).mapToObj(this::beerJson).collect(Collectors.joining("\n")));
+		return file;
+	}
+
+	private String beerJson(int i) {
+		return "{\"beerName\":\"Beer " + i + "\",\"beerStyle\":\"IPA\",\"upc\":\"" + (1000 + i) + "\",\"price\":9.99}";
+	}
+}
@@ -0,0 +1,58 @@
+package guru.springframework.spring6resttemplate.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactBeerTest {
+
+	@Test
+	void testRoundTripsEveryField() {
+		BeerDTO beer = BeerDTO.builder()
+			.id(UUID.randomUUID())
+			.version(3)
+			.beerName("Crème Brûlée Stout")
+			.beerStyle(BeerStyle.STOUT)
+			.upc("0123456789")
+			.quantityOnHand(0)
+			.price(new BigDecimal("12.50"))
+			.createdDate(LocalDateTime.parse("1999-12-31T23:59:59.123456789"))
+			.updateDate(LocalDateTime.parse("2024-05-01T10:15:30"))
+			.build();
+
+		BeerDTO decoded = CompactBeer.of(beer).toBeerDTO();
+
+		assertThat(decoded).isEqualTo(beer).isNotSameAs(beer);
+		assertThat(decoded.getPrice().scale()).isEqualTo(2);
+	}
+
+	@Test
+	void testKeepsNullsApartFromZeroValues() {
+		BeerDTO empty = BeerDTO.builder().build();
+
+		assertThat(CompactBeer.of(empty).toBeerDTO()).isEqualTo(empty);
+		assertThat(CompactBeer.of(empty).id()).isNull();
+	}
+
+	@Test
+	void testComparesIdsLikeUuid() {
+		UUID low = UUID.fromString("00000000-0000-0001-8000-000000000000");
+		UUID high = UUID.fromString("80000000-0000-0000-0000-000000000000");
+		CompactBeer first = CompactBeer.of(BeerDTO.builder().id(low).build());
+		CompactBeer second = CompactBeer.of(BeerDTO.builder().id(high).build());
+
+		assertThat(Integer.signum(first.compareId(second))).isEqualTo(Integer.signum(low.compareTo(high)));
+	}
+
+	@Test
+	void testRejectsPricesThatDoNotFit() {
+		BeerDTO beer = BeerDTO.builder().price(new BigDecimal("123456789012345678901234567890")).build();
+
+		assertThatThrownBy(() -> CompactBeer.of(beer)).isInstanceOf(ArithmeticException.class);
+	}
+}
@@ -0,0 +1,90 @@
+package guru.springframework.spring6resttemplate.page;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamingPageDecoderTest {
+
+	ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+	StreamingPageDecoder<BeerDTO> decoder = new StreamingPageDecoder<>(mapper, BeerDTO.class);
+	DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+	@Test
+	void testDecodesElementsSplitAcrossBuffers() throws Exception {
+		List<BeerDTO> beers = List.of(
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("first").beerStyle(BeerStyle.ALE)
+				.price(new BigDecimal("4.50")).build(),
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("second").beerStyle(BeerStyle.IPA)
+				.price(new BigDecimal("5.50")).build());
+		byte[] payload = mapper.writeValueAsBytes(new RestResponsePage<>(beers, 2, 2, 9));
+
+		AtomicReference<PageMetadata> metadata = new AtomicReference<>();
+		List<BeerDTO> received = decoder.decode(chunks(payload, 7), metadata::set).collectList().block();
+
+		assertThat(received).isEqualTo(beers);
+		assertThat(metadata.get()).isEqualTo(new PageMetadata(2, 2, 9, 2));
+	}
+
+	@Test
+	void testEmitsElementsBeforeTheBodyIsComplete() {
+		String first = "{\"content\":[{\"beerName\":\"first\"},";
+		String rest = "{\"beerName\":\"second\"}],\"number\":0,\"size\":2,\"totalElements\":2}";
+		Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+		List<String> received = new ArrayList<>();
+		AtomicReference<PageMetadata> metadata = new AtomicReference<>();
+
+		decoder.decode(body.asFlux(), metadata::set).subscribe(beer -> received.add(beer.getBeerName()));
+
+		body.tryEmitNext(buffer(first));
+		assertThat(received).containsExactly("first");
+		assertThat(metadata.get()).isNull();
+
+		body.tryEmitNext(buffer(rest));
+		body.tryEmitComplete();
+		assertThat(received).containsExactly("first", "second");
+		assertThat(metadata.get().isLast()).isTrue();
+	}
+
+	@Test
+	void testRejectsTruncatedBody() {
+		Flux<DataBuffer> body = Flux.just(buffer("{\"content\":[{\"beerName\":\"first\"}"));
+
+		assertThrows(DecodingException.class, () -> decoder.decode(body, metadata -> {}).blockLast());
+	}
+
+	@Test
+	void testRejectsNonObjectBody() {
+		assertThrows(DecodingException.class, () -> decoder.decode(Flux.just(buffer("[]")), metadata -> {}).blockLast());
+	}
+
+	private Flux<DataBuffer> chunks(byte[] payload, int chunkSize) {
+		List<DataBuffer> buffers = new ArrayList<>();
+		for (int from = 0; from < payload.length; from += chunkSize) {
+			buffers.add(bufferFactory.wrap(Arrays.copyOfRange(payload, from, Math.min(from + chunkSize, payload.length))));
+		}
+		return Flux.fromIterable(buffers);
+	}
+
+	private DataBuffer buffer(String json) {
+		return bufferFactory.wrap(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,63 @@
+package guru.springframework.spring6resttemplate.page;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import guru.springframework.spring6resttemplate.model.BeerDTO;
+import guru.springframework.spring6resttemplate.model.BeerStyle;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamingPageReaderTest {
+
+	ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+	StreamingPageReader<BeerDTO> reader = new StreamingPageReader<>(mapper, BeerDTO.class);
+
+	@Test
+	void testReadsElementsAndMetadata() throws Exception {
+		List<BeerDTO> beers = List.of(
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("first").beerStyle(BeerStyle.ALE)
+				.price(new BigDecimal("4.50")).build(),
+			BeerDTO.builder().id(UUID.randomUUID()).beerName("second").beerStyle(BeerStyle.IPA)
+				.price(new BigDecimal("5.50")).build());
+		byte[] payload = mapper.writeValueAsBytes(new RestResponsePage<>(beers, 2, 2, 9));
+
+		List<BeerDTO> received = new ArrayList<>();
+		PageMetadata metadata = reader.read(new ByteArrayInputStream(payload), received::add);
+
+		assertThat(received).isEqualTo(beers);
+		assertThat(metadata).isEqualTo(new PageMetadata(2, 2, 9, 2));
+		assertThat(metadata.totalPages()).isEqualTo(5);
+		assertThat(metadata.isLast()).isFalse();
+	}
+
+	@Test
+	void testContentBeforeOrAfterMetadataAndUnknownFields() throws Exception {
+		String payload = """
+			{"totalElements": 1, "pageable": {"sort": {"sorted": false}}, "number": 0,
+			 "content": [{"beerName": "only", "ignored": [1, 2]}], "size": 25, "last": true}
+			""";
+
+		List<BeerDTO> received = new ArrayList<>();
+		PageMetadata metadata = reader.read(
+			new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)), received::add);
+
+		assertThat(received).extracting(BeerDTO::getBeerName).containsExactly("only");
+		assertThat(metadata.isLast()).isTrue();
+	}
+
+	@Test
+	void testRejectsNonObjectBody() {
+		assertThrows(MismatchedInputException.class, () ->
+			reader.read(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)), beer -> {}));
+	}
+}